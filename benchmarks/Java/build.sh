@@ -7,6 +7,10 @@ pushd "$SCRIPT_PATH"
 if [[ "$1" = "style" ]]
 then
   ant checkstyle-jar && ant checkstyle
+elif [[ "$1" = "jmh" ]]
+then
+  INFO Build Java Benchmarks for JMH
+  mvn -B -f jmh/pom.xml package
 else
   INFO Build Java Benchmarks
   ant jar
@@ -0,0 +1,64 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import jmh.Workload;
+
+/**
+ * Exposes a {@link Benchmark} of the default package to the JMH benchmarks.
+ *
+ * <p>JMH does not support benchmark classes in the default package, and
+ * classes in named packages cannot refer to the ones in the default package.
+ * Thus, the JMH benchmarks instantiate this class reflectively.
+ */
+public final class JmhWorkload implements Workload {
+  private final Benchmark bench;
+  private final boolean   singleResult;
+
+  public JmhWorkload(final String name) throws ReflectiveOperationException {
+    bench = BenchmarkRegistry.getDefault().lookup(name).getFactory().get();
+
+    // benchmarks that override innerBenchmarkLoop() do not produce a result
+    // per inner iteration, but verify the result of the whole loop
+    singleResult = bench.getClass().getMethod(
+        "innerBenchmarkLoop", int.class).getDeclaringClass() != Benchmark.class;
+  }
+
+  @Override
+  public boolean hasSingleResult() {
+    return singleResult;
+  }
+
+  @Override
+  public Object benchmark() {
+    return bench.benchmark();
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    return bench.verifyResult(result);
+  }
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    return bench.innerBenchmarkLoop(innerIterations);
+  }
+}
@@ -0,0 +1,362 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs each benchmark of the harness with JMH.
+ *
+ * <p>One JMH operation corresponds to one iteration of the harness, i.e., one
+ * call of {@code innerBenchmarkLoop(innerIterations)}. The default inner
+ * iterations are the ones used in {@code rebench.conf}, and can be changed
+ * with JMH's {@code -p innerIterations=...}. Note that benchmarks verify
+ * their results only for the problem sizes they know.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class AwfyBenchmarks {
+
+  @State(Scope.Thread)
+  public abstract static class AwfyState {
+    private final String name;
+
+    private Workload workload;
+    private boolean  singleResult;
+
+    protected AwfyState(final String name) {
+      this.name = name;
+    }
+
+    protected abstract int innerIterations();
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+      workload = (Workload) Class.forName("JmhWorkload")
+          .getConstructor(String.class).newInstance(name);
+      singleResult = workload.hasSingleResult();
+    }
+
+    void run(final Blackhole bh) {
+      int innerIterations = innerIterations();
+      if (singleResult) {
+        boolean verified = workload.innerBenchmarkLoop(innerIterations);
+        bh.consume(verified);
+        if (!verified) {
+          throw new RuntimeException(name + " failed with incorrect result");
+        }
+        return;
+      }
+
+      for (int i = 0; i < innerIterations; i++) {
+        Object result = workload.benchmark();
+        bh.consume(result);
+        if (!workload.verifyResult(result)) {
+          throw new RuntimeException(name + " failed with incorrect result");
+        }
+      }
+    }
+  }
+
+  public static class BounceState extends AwfyState {
+    @Param("1500")
+    public int innerIterations;
+
+    public BounceState() {
+      super("Bounce");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class CDState extends AwfyState {
+    @Param("250")
+    public int innerIterations;
+
+    public CDState() {
+      super("CD");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class DeltaBlueState extends AwfyState {
+    @Param("12000")
+    public int innerIterations;
+
+    public DeltaBlueState() {
+      super("DeltaBlue");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class HavlakState extends AwfyState {
+    @Param("1500")
+    public int innerIterations;
+
+    public HavlakState() {
+      super("Havlak");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class JsonState extends AwfyState {
+    @Param("100")
+    public int innerIterations;
+
+    public JsonState() {
+      super("Json");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class ListState extends AwfyState {
+    @Param("1500")
+    public int innerIterations;
+
+    public ListState() {
+      super("List");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class MandelbrotState extends AwfyState {
+    @Param("500")
+    public int innerIterations;
+
+    public MandelbrotState() {
+      super("Mandelbrot");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class NBodyState extends AwfyState {
+    @Param("250000")
+    public int innerIterations;
+
+    public NBodyState() {
+      super("NBody");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class PermuteState extends AwfyState {
+    @Param("1000")
+    public int innerIterations;
+
+    public PermuteState() {
+      super("Permute");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class QueensState extends AwfyState {
+    @Param("1000")
+    public int innerIterations;
+
+    public QueensState() {
+      super("Queens");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class RichardsState extends AwfyState {
+    @Param("100")
+    public int innerIterations;
+
+    public RichardsState() {
+      super("Richards");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class SieveState extends AwfyState {
+    @Param("3000")
+    public int innerIterations;
+
+    public SieveState() {
+      super("Sieve");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class StorageState extends AwfyState {
+    @Param("1000")
+    public int innerIterations;
+
+    public StorageState() {
+      super("Storage");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  public static class TowersState extends AwfyState {
+    @Param("600")
+    public int innerIterations;
+
+    public TowersState() {
+      super("Towers");
+    }
+
+    @Override
+    protected int innerIterations() {
+      return innerIterations;
+    }
+  }
+
+  @Benchmark
+  public void bounce(final BounceState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void cd(final CDState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void deltaBlue(final DeltaBlueState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void havlak(final HavlakState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void json(final JsonState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void list(final ListState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void mandelbrot(final MandelbrotState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void nbody(final NBodyState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void permute(final PermuteState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void queens(final QueensState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void richards(final RichardsState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void sieve(final SieveState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void storage(final StorageState state, final Blackhole bh) {
+    state.run(bh);
+  }
+
+  @Benchmark
+  public void towers(final TowersState state, final Blackhole bh) {
+    state.run(bh);
+  }
+}
@@ -0,0 +1,51 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes allocated by the current thread, using the
+ * HotSpot-specific {@link com.sun.management.ThreadMXBean}.
+ */
+public final class AllocationCounter {
+  private final com.sun.management.ThreadMXBean threads;
+  private final long threadId;
+
+  public AllocationCounter() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      throw new RuntimeException("Allocation accounting is not supported by this VM");
+    }
+
+    threads = (com.sun.management.ThreadMXBean) bean;
+    if (!threads.isThreadAllocatedMemorySupported()) {
+      throw new RuntimeException("Allocation accounting is not supported by this VM");
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+    threadId = Thread.currentThread().getId();
+  }
+
+  /** Bytes allocated so far by the thread that created this counter. */
+  public long allocatedBytes() {
+    return threads.getThreadAllocatedBytes(threadId);
+  }
+}
@@ -0,0 +1,88 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.util.function.Supplier;
+
+/**
+ * Describes a benchmark that can be run by the harness.
+ */
+public final class BenchmarkDescriptor {
+  private final String              name;
+  private final Supplier<Benchmark> factory;
+  private final int                 defaultInnerIterations;
+  private final int[]               verifiedSizes;
+  private final String[]            tags;
+
+  /**
+   * @param defaultInnerIterations the inner iterations used when none are
+   *        given on the command line
+   * @param verifiedSizes the inner iterations for which the benchmark knows
+   *        the expected result, or {@code null} if the result does not
+   *        depend on the inner iterations
+   */
+  public BenchmarkDescriptor(final String name,
+      final Supplier<Benchmark> factory, final int defaultInnerIterations,
+      final int[] verifiedSizes, final String... tags) {
+    this.name    = name;
+    this.factory = factory;
+    this.defaultInnerIterations = defaultInnerIterations;
+    this.verifiedSizes = verifiedSizes;
+    this.tags    = tags;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Supplier<Benchmark> getFactory() {
+    return factory;
+  }
+
+  public int getDefaultInnerIterations() {
+    return defaultInnerIterations;
+  }
+
+  public int[] getVerifiedSizes() {
+    return verifiedSizes;
+  }
+
+  public String[] getTags() {
+    return tags;
+  }
+
+  /**
+   * @return whether the benchmark is part of the cross-language suite, i.e.,
+   *         it is neither a {@code variant} nor an {@code extra}
+   */
+  public boolean isCanonical() {
+    return !hasTag("variant") && !hasTag("extra");
+  }
+
+  public boolean hasTag(final String tag) {
+    for (String t : tags) {
+      if (t.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
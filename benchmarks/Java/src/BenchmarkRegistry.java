@@ -0,0 +1,87 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * All benchmarks known to the harness, by name.
+ */
+public final class BenchmarkRegistry {
+  private static BenchmarkRegistry instance;
+
+  private final Map<String, BenchmarkDescriptor> benchmarks;
+
+  private BenchmarkRegistry() {
+    benchmarks = new LinkedHashMap<>();
+  }
+
+  public static BenchmarkRegistry getDefault() {
+    if (instance == null) {
+      BenchmarkRegistry registry = new BenchmarkRegistry();
+      new CoreBenchmarks().registerBenchmarks(registry);
+      for (BenchmarkProvider p : ServiceLoader.load(BenchmarkProvider.class)) {
+        p.registerBenchmarks(registry);
+      }
+      instance = registry;
+    }
+    return instance;
+  }
+
+  public void register(final BenchmarkDescriptor descriptor) {
+    if (benchmarks.containsKey(descriptor.getName())) {
+      throw new RuntimeException(
+          "A benchmark with the name " + descriptor.getName() + " is already registered");
+    }
+    benchmarks.put(descriptor.getName(), descriptor);
+  }
+
+  public BenchmarkDescriptor lookup(final String name) {
+    BenchmarkDescriptor descriptor = benchmarks.get(name);
+    if (descriptor == null) {
+      throw new RuntimeException("No benchmark found with the name: " + name);
+    }
+    return descriptor;
+  }
+
+  /** All benchmarks with the given tag, or all benchmarks if tag is null. */
+  public BenchmarkDescriptor[] withTag(final String tag) {
+    return benchmarks.values().stream()
+        .filter(d -> tag == null || d.hasTag(tag))
+        .toArray(BenchmarkDescriptor[]::new);
+  }
+
+  /**
+   * All benchmarks with the given tag, or all benchmarks if tag is null.
+   * Unless {@code includeNonCanonical} is set, variants and extras are left
+   * out, except when they are explicitly selected by their tag.
+   */
+  public BenchmarkDescriptor[] withTag(final String tag,
+      final boolean includeNonCanonical) {
+    boolean selectsNonCanonical = "variant".equals(tag) || "extra".equals(tag);
+    return benchmarks.values().stream()
+        .filter(d -> tag == null || d.hasTag(tag))
+        .filter(d -> includeNonCanonical || selectsNonCanonical || d.isCanonical())
+        .toArray(BenchmarkDescriptor[]::new);
+  }
+}
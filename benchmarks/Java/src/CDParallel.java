@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2001-2016 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import cd.Collision;
+import cd.ParallelCollisionDetector;
+import cd.Simulator;
+import som.Vector;
+
+/**
+ * Variant of {@link CD} that checks the motions in the different voxels for
+ * collisions in parallel, using {@code Vector.parallelCollect}.
+ */
+public final class CDParallel extends Benchmark {
+
+  /** Only used for its expected results. */
+  private final CD cd = new CD();
+
+  private int benchmark(final int numAircrafts) {
+    int numFrames = 200;
+
+    Simulator simulator = new Simulator(numAircrafts);
+    ParallelCollisionDetector detector = new ParallelCollisionDetector();
+
+    int actualCollisions = 0;
+
+    for (int i = 0; i < numFrames; i++) {
+      double time = i / 10.0;
+      Vector<Collision> collisions = detector.handleNewFrame(simulator.simulate(time));
+      actualCollisions += collisions.size();
+    }
+
+    return actualCollisions;
+  }
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    return cd.verifyResult(benchmark(innerIterations), innerIterations);
+  }
+
+  @Override
+  public Object benchmark() {
+    throw new RuntimeException("Should never be reached");
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    throw new RuntimeException("Should never be reached");
+  }
+}
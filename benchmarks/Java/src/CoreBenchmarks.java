@@ -0,0 +1,116 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * The benchmarks of Are We Fast Yet.
+ *
+ * <p>The default inner iterations are the ones used in {@code rebench.conf}.
+ * Benchmarks tagged as {@code variant} are alternative implementations of
+ * another benchmark, and benchmarks tagged as {@code extra} only exist in
+ * Java. Neither are part of the cross-language suite.
+ */
+public final class CoreBenchmarks implements BenchmarkProvider {
+
+  // The inner iterations for which the verifyResult() methods of the
+  // benchmarks know the expected result. Variants share the sizes of the
+  // benchmark they are derived from.
+  private static final int[] CD_SIZES         = {2, 10, 100, 200, 250, 500, 1000};
+  private static final int[] HAVLAK_SIZES     = {1, 15, 150, 1500, 15000};
+  private static final int[] MANDELBROT_SIZES = {1, 500, 750};
+  private static final int[] NBODY_SIZES      = {1, 250000};
+
+  @Override
+  public void registerBenchmarks(final BenchmarkRegistry r) {
+    r.register(new BenchmarkDescriptor("Bounce", () -> new Bounce(), 1500, null, "micro"));
+    r.register(new BenchmarkDescriptor("CD", () -> new CD(), 250,
+        CD_SIZES, "macro", "float", "allocation-heavy"));
+    r.register(new BenchmarkDescriptor("CDParallel", () -> new CDParallel(), 250,
+        CD_SIZES, "macro", "float", "allocation-heavy",
+        "variant", "parallel"));
+    r.register(new BenchmarkDescriptor("CDStreams", () -> new CDStreams(), 250,
+        CD_SIZES, "macro", "float", "allocation-heavy",
+        "variant", "parallel", "streams"));
+    r.register(new BenchmarkDescriptor("DeltaBlue", () -> new DeltaBlue(), 12000, null,
+        "macro", "allocation-heavy"));
+    r.register(new BenchmarkDescriptor("DeltaBlueDeque", () -> new DeltaBlueDeque(), 12000,
+        null, "macro", "allocation-heavy", "variant"));
+    r.register(new BenchmarkDescriptor("DeltaBlueStreams", () -> new DeltaBlueStreams(), 12000,
+        null, "macro", "allocation-heavy", "variant", "streams"));
+    r.register(new BenchmarkDescriptor("Havlak", () -> new Havlak(), 1500,
+        HAVLAK_SIZES, "macro", "allocation-heavy"));
+    r.register(new BenchmarkDescriptor("HavlakInt", () -> new HavlakInt(), 1500,
+        HAVLAK_SIZES, "macro", "allocation-heavy", "variant"));
+    r.register(new BenchmarkDescriptor("HavlakHashedSet", () -> new HavlakHashedSet(), 1500,
+        HAVLAK_SIZES, "macro", "allocation-heavy", "variant"));
+    r.register(new BenchmarkDescriptor("HavlakIdentityHash", () -> new HavlakIdentityHash(),
+        1500, HAVLAK_SIZES, "macro", "allocation-heavy", "variant"));
+    r.register(new BenchmarkDescriptor("HavlakOpenAddressing", () -> new HavlakOpenAddressing(),
+        1500, HAVLAK_SIZES, "macro", "allocation-heavy", "variant"));
+    r.register(new BenchmarkDescriptor("HavlakStreams", () -> new HavlakStreams(), 1500,
+        HAVLAK_SIZES, "macro", "allocation-heavy", "variant",
+        "streams"));
+    r.register(new BenchmarkDescriptor("Json", () -> new Json(), 100, null,
+        "macro", "allocation-heavy", "string"));
+    r.register(new BenchmarkDescriptor("JsonCharArray", () -> new JsonCharArray(), 100, null,
+        "macro", "allocation-heavy", "string", "variant"));
+    r.register(new BenchmarkDescriptor("JsonUtf8", () -> new JsonUtf8(), 100, null,
+        "macro", "allocation-heavy", "string", "variant"));
+    r.register(new BenchmarkDescriptor("JsonNumbers", () -> new JsonNumbers(false), 100,
+        null, "micro", "string", "extra"));
+    r.register(new BenchmarkDescriptor("JsonNumbersEager", () -> new JsonNumbers(true), 100,
+        null, "micro", "string", "extra"));
+    r.register(new BenchmarkDescriptor("JsonRoundTrip", () -> new JsonRoundTrip(), 100, null,
+        "macro", "allocation-heavy", "string", "extra"));
+    r.register(new BenchmarkDescriptor("JsonStreamSum", () -> new JsonStreamSum(), 4000000,
+        null, "macro", "string", "extra"));
+    r.register(new BenchmarkDescriptor("List", () -> new List(), 1500, null,
+        "micro", "allocation-heavy"));
+    r.register(new BenchmarkDescriptor("Mandelbrot", () -> new Mandelbrot(), 500,
+        MANDELBROT_SIZES, "micro", "float"));
+    r.register(new BenchmarkDescriptor("NBody", () -> new NBody(), 250000,
+        NBODY_SIZES, "micro", "float"));
+    r.register(new BenchmarkDescriptor("NBodyOffHeap", () -> new NBodyOffHeap(), 250000,
+        NBODY_SIZES, "micro", "float", "variant"));
+    r.register(new BenchmarkDescriptor("Permute", () -> new Permute(), 1000, null, "micro"));
+    r.register(new BenchmarkDescriptor("Queens", () -> new Queens(), 1000, null, "micro"));
+    r.register(new BenchmarkDescriptor("Richards", () -> new Richards(), 100, null, "macro"));
+    r.register(new BenchmarkDescriptor("Sieve", () -> new Sieve(), 3000, null, "micro"));
+    r.register(new BenchmarkDescriptor("Sort", () -> new Sort(Sort.Kind.QUICK), 100, null,
+        "micro", "extra"));
+    r.register(new BenchmarkDescriptor("SortNatural", () -> new Sort(Sort.Kind.NATURAL), 100,
+        null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("SortStable", () -> new Sort(Sort.Kind.STABLE), 100,
+        null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("SortIntKey", () -> new Sort(Sort.Kind.INT_KEY), 100,
+        null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("Storage", () -> new Storage(), 1000, null,
+        "micro", "allocation-heavy"));
+    r.register(new BenchmarkDescriptor("VectorRemove",
+        () -> new VectorRemove(VectorRemove.Mode.REMOVE), 100, null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("VectorRemoveInPlace",
+        () -> new VectorRemove(VectorRemove.Mode.IN_PLACE), 100, null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("VectorRemoveIf",
+        () -> new VectorRemove(VectorRemove.Mode.REMOVE_IF), 100, null, "micro", "extra"));
+    r.register(new BenchmarkDescriptor("Towers", () -> new Towers(), 600, null, "micro"));
+  }
+}
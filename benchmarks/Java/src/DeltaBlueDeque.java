@@ -0,0 +1,24 @@
+/*
+ * This benchmark is derived from Mario Wolczko's Java and Smalltalk version of
+ * DeltaBlue.
+ * 
+ * It is modified to use the SOM class library and Java 8 features.
+ * License details:
+ *   http://web.archive.org/web/20050825101121/http://www.sunlabs.com/people/mario/java_benchmarking/index.html
+ */
+import deltablue.DequePlanner;
+import deltablue.Planner;
+
+/**
+ * Variant of {@link DeltaBlue} that uses a planner with {@code som.Deque}
+ * work-lists instead of vectors.
+ */
+public final class DeltaBlueDeque extends DeltaBlue {
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    Planner.chainTest(new DequePlanner(), innerIterations);
+    Planner.projectionTest(new DequePlanner(), innerIterations);
+    return true;
+  }
+}
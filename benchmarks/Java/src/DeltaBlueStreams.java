@@ -0,0 +1,24 @@
+/*
+ * This benchmark is derived from Mario Wolczko's Java and Smalltalk version of
+ * DeltaBlue.
+ * 
+ * It is modified to use the SOM class library and Java 8 features.
+ * License details:
+ *   http://web.archive.org/web/20050825101121/http://www.sunlabs.com/people/mario/java_benchmarking/index.html
+ */
+import deltablue.Planner;
+import deltablue.StreamPlanner;
+
+/**
+ * Variant of {@link DeltaBlue} that uses a planner based on {@code Stream}
+ * pipelines over the constraint lists.
+ */
+public final class DeltaBlueStreams extends DeltaBlue {
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    Planner.chainTest(new StreamPlanner(), innerIterations);
+    Planner.projectionTest(new StreamPlanner(), innerIterations);
+    return true;
+  }
+}
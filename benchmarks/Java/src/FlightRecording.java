@@ -0,0 +1,62 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * A flight recording started and stopped by the harness, so that the
+ * recorded events cover exactly the benchmark execution.
+ */
+public final class FlightRecording {
+  private final Recording recording;
+  private final String    file;
+
+  public FlightRecording(final String file, final String settings) {
+    this.file = file;
+    try {
+      recording = new Recording(Configuration.getConfiguration(settings));
+    } catch (IOException | ParseException e) {
+      throw new RuntimeException("Failed to load JFR settings: " + settings, e);
+    }
+    recording.setName("are-we-fast-yet");
+  }
+
+  public void start() {
+    recording.start();
+  }
+
+  public void stopAndDump() {
+    recording.stop();
+    try {
+      recording.dump(Paths.get(file));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write flight recording: " + file, e);
+    } finally {
+      recording.close();
+    }
+  }
+}
@@ -23,35 +23,165 @@
 public final class Harness {
 
   private static Run processArguments(final String[] args) {
-    Run run = new Run(args[0]);
+    for (String arg : args) {
+      if (arg.equals("--list") || arg.startsWith("--list=")) {
+        printBenchmarks(arg.length() > 7 ? arg.substring(7) : null);
+        System.exit(0);
+      }
+    }
+
+    String[] positional = new String[args.length];
+    int numPositional = 0;
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        positional[numPositional] = arg;
+        numPositional += 1;
+      }
+    }
+
+    if (numPositional < 2) {
+      printUsage();
+      System.exit(1);
+    }
+
+    Run run = new Run(positional[0]);
+    run.setNumIterations(Integer.valueOf(positional[1]));
+    if (numPositional > 2) {
+      run.setInnerIterations(Integer.valueOf(positional[2]));
+    }
+
+    String output = null;
+    String format = null;
+
+    boolean steadyState  = false;
+    int     steadyWindow = 30;
+    double  steadyCoV    = 0.02;
+    int     postWarmup   = 100;
+
+    int     numThreads  = 1;
+    boolean allocations = false;
+    boolean vmEvents    = false;
+
+    boolean jfr         = false;
+    String  jfrFile     = null;
+    String  jfrSettings = "default";
+
+    double calibrationMs = 0;
+
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        continue;
+      }
+
+      int eq = arg.indexOf('=');
+      String option = eq == -1 ? arg.substring(2) : arg.substring(2, eq);
+      String value  = eq == -1 ? null : arg.substring(eq + 1);
+
+      switch (option) {
+        case "output": output = value; break;
+        case "format": format = value; break;
+
+        case "steady-state":  steadyState  = true; break;
+        case "steady-window": steadyWindow = Integer.valueOf(value); break;
+        case "steady-cov":    steadyCoV    = Double.valueOf(value); break;
+        case "post-warmup":   postWarmup   = Integer.valueOf(value); break;
+
+        case "threads":   numThreads  = Integer.valueOf(value); break;
+        case "alloc":     allocations = true; break;
+        case "vm-events": vmEvents    = true; break;
+
+        case "jfr":          jfr = true; jfrFile = value; break;
+        case "jfr-settings": jfrSettings = value; break;
 
-    if (args.length > 1) {
-      run.setNumIterations(Integer.valueOf(args[1]));
-      if (args.length > 2) {
-        run.setInnerIterations(Integer.valueOf(args[2]));
+        case "calibrate": calibrationMs = value == null ? 10 : Double.valueOf(value); break;
+        default:
+          throw new RuntimeException("Unknown option: " + arg);
       }
     }
 
+    if (numThreads > 1 && (steadyState || output != null || allocations || vmEvents || jfr)) {
+      throw new RuntimeException("--threads cannot be combined with " +
+          "--steady-state, --output, --alloc, --vm-events, or --jfr");
+    }
+    run.setNumThreads(numThreads);
+
+    if (calibrationMs > 0) {
+      if (numPositional > 2) {
+        throw new RuntimeException("--calibrate cannot be combined with inner-iter");
+      }
+      run.setCalibrationTarget((long) (calibrationMs * 1_000_000));
+    }
+
+    if (allocations) {
+      run.setAllocationCounter(new AllocationCounter());
+    }
+    if (vmEvents) {
+      run.setVmEventMonitor(new VmEventMonitor());
+    }
+    if (jfr) {
+      run.setFlightRecorder(jfrFile, jfrSettings);
+    }
+
+    if (steadyState) {
+      run.setSteadyStateDetection(
+          new SteadyStateDetector(steadyWindow, steadyCoV), postWarmup);
+    }
+
+    if (output != null) {
+      if (format == null) {
+        format = output.endsWith(".csv") ? "csv" : "jsonl";
+      }
+      run.setResultWriter(
+          new ResultWriter(output, ResultWriter.formatFromName(format)));
+    }
+
     return run;
   }
 
+  private static void printBenchmarks(final String tag) {
+    for (BenchmarkDescriptor d : BenchmarkRegistry.getDefault().withTag(tag)) {
+      // Checkstyle: stop
+      System.out.println(d.getName() + " inner-iter: " + d.getDefaultInnerIterations() +
+          " tags: " + String.join(", ", d.getTags()));
+      // Checkstyle: resume
+    }
+  }
+
   private static void printUsage() {
     // Checkstyle: stop
-    System.out.println("Harness [benchmark] [num-iterations [inner-iter]]");
+    System.out.println("Harness [options] [benchmark] [num-iterations [inner-iter]]");
     System.out.println();
     System.out.println("  benchmark      - benchmark class name ");
     System.out.println("  num-iterations - number of times to execute benchmark, default: 1");
     System.out.println("  inner-iter     - number of times the benchmark is executed in an inner loop, ");
-    System.out.println("                   which is measured in total, default: 1");
+    System.out.println("                   which is measured in total, default: the benchmark's");
+    System.out.println("                   inner-iter shown by --list");
+    System.out.println();
+    System.out.println("Options:");
+    System.out.println("  --output=file       - write a record per iteration to the given file");
+    System.out.println("  --format=fmt        - format of the output file, jsonl or csv,");
+    System.out.println("                        default: csv for *.csv files, jsonl otherwise");
+    System.out.println("  --steady-state      - stop once steady state is detected,");
+    System.out.println("                        num-iterations is then the maximum");
+    System.out.println("  --steady-window=n   - number of iterations that need to be stable, default: 30");
+    System.out.println("  --steady-cov=x      - maximal coefficient of variation of a stable window,");
+    System.out.println("                        default: 0.02");
+    System.out.println("  --post-warmup=n     - iterations measured after steady state, default: 100");
+    System.out.println("  --threads=n         - run n benchmark instances concurrently and report");
+    System.out.println("                        their throughput and scaling efficiency, default: 1");
+    System.out.println("  --alloc             - report the bytes allocated by each iteration");
+    System.out.println("  --vm-events         - report GC and JIT compilation time of each iteration");
+    System.out.println("  --jfr[=file]        - emit a JFR event for each iteration, and if a file");
+    System.out.println("                        is given, record the benchmark execution into it");
+    System.out.println("  --jfr-settings=name - JFR settings for the recording, default: default");
+    System.out.println("  --calibrate[=ms]    - choose inner-iter so that an iteration takes at least");
+    System.out.println("                        the given time, default: 10ms");
+    System.out.println("  --list[=tag]        - list the available benchmarks, optionally only");
+    System.out.println("                        the ones with the given tag");
     // Checkstyle: resume
   }
 
   public static void main(final String[] args) {
-    if (args.length < 2) {
-      printUsage();
-      System.exit(1);
-    }
-
     Run run = processArguments(args);
     run.runBenchmark();
     run.printTotal();
@@ -21,7 +21,7 @@
  */
 import havlak.LoopTesterApp;
 
-public final class Havlak extends Benchmark {
+public class Havlak extends Benchmark {
 
   @Override
   public boolean innerBenchmarkLoop(final int innerIterations) {
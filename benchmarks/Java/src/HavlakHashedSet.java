@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2001-2016 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import havlak.LoopTesterApp;
+import havlak.LoopTesterApp.Finder;
+
+/**
+ * Variant of {@link Havlak} that keeps the non-back predecessors of the loop
+ * finder in hash-based sets instead of sets with a linear-scan lookup.
+ */
+public final class HavlakHashedSet extends Havlak {
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    return verifyResult((new LoopTesterApp(Finder.HASHED_SETS)).main(
+        innerIterations, 50, 10 /* was 100 */, 10, 5), innerIterations);
+  }
+}
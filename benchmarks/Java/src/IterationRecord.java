@@ -0,0 +1,52 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * The data recorded for a single measured iteration.
+ *
+ * <p>{@link Run} reuses one instance for all iterations so that recording
+ * results does not allocate in the measurement loop.
+ */
+public final class IterationRecord {
+  String  benchmark;
+  int     iteration;
+  long    startNanos;
+  long    endNanos;
+  int     innerIterations;
+  boolean verified;
+
+  /** Whether steady state was detected before this iteration. */
+  boolean steadyState;
+
+  /** Bytes allocated by the iteration, or -1 if not measured. */
+  long allocatedBytes = -1;
+
+  /** GC and JIT activity during the iteration, or -1 if not monitored. */
+  long gcCount           = -1;
+  long gcTimeMillis      = -1;
+  long compileTimeMillis = -1;
+
+  public long runTimeMicros() {
+    return (endNanos - startNanos) / 1000;
+  }
+}
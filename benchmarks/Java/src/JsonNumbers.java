@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+import json.JsonArray;
+import json.JsonCharArrayParser;
+import json.JsonValue;
+
+/**
+ * Parses an array of number records and sums their values through
+ * {@code asLong()} and {@code asDouble()}. The numbers are either decoded
+ * lazily on the first access, or eagerly while parsing. Each mode is
+ * registered as a separate benchmark.
+ *
+ * <p>A record holds an integer, {@code -0}, a decimal fraction, a number
+ * with an exponent, and an integer that overflows {@code long}, so that all
+ * decoding paths of {@code JsonNumber} are covered. The expected sums are
+ * computed from the generated text with the JDK parsers.
+ */
+public final class JsonNumbers extends Benchmark {
+  private static final int NUM_RECORDS = 1000;
+
+  private final boolean eager;
+  private final char[]  document;
+
+  private final long   expectedLongSum;
+  private final double expectedDoubleSum;
+
+  public JsonNumbers(final boolean eager) {
+    this.eager = eager;
+
+    StringBuilder text = new StringBuilder("[");
+    long   longSum   = 0;
+    double doubleSum = 0;
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      String integer  = String.valueOf(i * 7919L - 3000000);
+      String fraction = i + "." + (i % 100);
+      String exponent = (i % 90 + 1) + (i % 2 == 0 ? "e" : "E-") + (i % 5);
+      String overflow = "1" + String.format("%019d", i);
+
+      if (i > 0) {
+        text.append(',');
+      }
+      text.append('[').append(integer).append(",-0,").append(fraction).append(',')
+          .append(exponent).append(',').append(overflow).append(']');
+
+      longSum  += Long.parseLong(integer);
+      doubleSum = doubleSum + Double.parseDouble(fraction)
+          + Double.parseDouble(exponent) + Double.parseDouble(overflow);
+    }
+    text.append(']');
+
+    document = text.toString().toCharArray();
+    expectedLongSum   = longSum;
+    expectedDoubleSum = doubleSum;
+  }
+
+  @Override
+  public Object benchmark() {
+    JsonArray records = new JsonCharArrayParser(
+        document, 0, document.length, eager).parse().asArray();
+
+    long   longSum   = 0;
+    double doubleSum = 0;
+    int    negativeZeros = 0;
+    for (int i = 0; i < records.size(); i++) {
+      JsonArray r = records.get(i).asArray();
+      longSum += r.get(0).asLong();
+
+      JsonValue zero = r.get(1);
+      longSum += zero.asLong();
+      if (Double.doubleToRawLongBits(zero.asDouble()) == Double.doubleToRawLongBits(-0.0)) {
+        negativeZeros++;
+      }
+
+      doubleSum = doubleSum + r.get(2).asDouble() + r.get(3).asDouble()
+          + r.get(4).asDouble();
+    }
+
+    return longSum == expectedLongSum && doubleSum == expectedDoubleSum
+        && negativeZeros == records.size();
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    return (boolean) result;
+  }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+import json.JsonCharArrayParser;
+import json.JsonValue;
+import json.JsonWriter;
+
+/**
+ * Parses the input of {@link Json}, serializes the tree with
+ * {@link JsonWriter}, and parses the result again. The input is minified
+ * and has no escapes, so the serialized text needs to be exactly as long
+ * as the input.
+ */
+public final class JsonRoundTrip extends Json {
+
+  private final StringBuilder out    = new StringBuilder(rapBenchmarkMinified.length());
+  private final JsonWriter    writer = new JsonWriter(out);
+
+  @Override
+  public Object benchmark() {
+    JsonValue parsed = (new JsonCharArrayParser(rapBenchmarkMinified)).parse();
+
+    out.setLength(0);
+    writer.write(parsed);
+    writer.flush();
+
+    if (out.length() != rapBenchmarkMinified.length()) {
+      return null;
+    }
+    return (new JsonCharArrayParser(out.toString())).parse();
+  }
+
+  @Override
+  public boolean verifyResult(final Object r) {
+    return r != null && super.verifyResult(r);
+  }
+}
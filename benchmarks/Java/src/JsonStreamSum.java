@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+import java.io.Reader;
+
+import json.JsonPullParser;
+import json.JsonToken;
+
+/**
+ * Sums the numeric fields of a large synthetic document with the
+ * {@link JsonPullParser}, without building a tree. The document replays a
+ * block of pre-generated records while it is read, so it is never held in
+ * memory either, and generating it costs no more than copying characters.
+ *
+ * <p>The inner iterations are the number of records in the document. A
+ * record is about 100 characters, so 4 million records make a document of
+ * about 400 MB.
+ */
+public final class JsonStreamSum extends Benchmark {
+  private static final int    BLOCK_RECORDS = 1000;
+  private static final String SEPARATOR     = ",\n";
+
+  /** The records of a block, each preceded by the separator. */
+  private final char[] block;
+
+  /** The start of each record in {@code block}, and its end. */
+  private final int[] recordStart;
+
+  /** The sum of the numbers of the first records of a block. */
+  private final long[] sumOfFirst;
+
+  public JsonStreamSum() {
+    StringBuilder text = new StringBuilder();
+    recordStart = new int[BLOCK_RECORDS + 1];
+    sumOfFirst  = new long[BLOCK_RECORDS + 1];
+
+    for (int i = 0; i < BLOCK_RECORDS; i++) {
+      recordStart[i] = text.length();
+      text.append(SEPARATOR);
+      record(text, i);
+      sumOfFirst[i + 1] = sumOfFirst[i] + recordSum(i);
+    }
+    recordStart[BLOCK_RECORDS] = text.length();
+
+    block = new char[text.length()];
+    text.getChars(0, text.length(), block, 0);
+  }
+
+  /**
+   * Appends a record. The numbers of a record are its id, a price with two
+   * decimal places, a negative quantity, and a small integer in a nested
+   * array.
+   */
+  private static void record(final StringBuilder text, final int i) {
+    text.append("{\"id\":").append(i);
+    text.append(",\"name\":\"item-").append(i).append('"');
+    text.append(",\"price\":").append(i % 1000).append('.');
+    if (i % 100 < 10) {
+      text.append('0');
+    }
+    text.append(i % 100);
+    text.append(",\"quantity\":-").append(i % 7);
+    text.append(",\"active\":").append(i % 2 == 0);
+    text.append(",\"tags\":[\"a\\\"b\",null,").append(i % 3 - 1).append("]}");
+  }
+
+  /** The sum of the numbers of a record, with the price in cents. */
+  private static long recordSum(final int i) {
+    return i + (i % 1000 * 100 + i % 100) - (i % 7) + (i % 3 - 1);
+  }
+
+  private long expectedSum(final int numRecords) {
+    return (long) (numRecords / BLOCK_RECORDS) * sumOfFirst[BLOCK_RECORDS]
+        + sumOfFirst[numRecords % BLOCK_RECORDS];
+  }
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    JsonPullParser parser = new JsonPullParser(new SyntheticDocument(innerIterations));
+
+    long sum = 0;
+    long records = 0;
+    JsonToken token;
+    while ((token = parser.next()) != null) {
+      if (token == JsonToken.VALUE_NUMBER) {
+        if (parser.isIntegral()) {
+          sum += parser.getLong();
+        } else {
+          sum += Math.round(parser.getDouble() * 100);
+        }
+      } else if (token == JsonToken.START_OBJECT && parser.getDepth() == 2) {
+        records++;
+      }
+    }
+    return records == innerIterations && sum == expectedSum(innerIterations);
+  }
+
+  /**
+   * An array of records, made of copies of the pre-generated block. The
+   * separator of the very first record is skipped.
+   */
+  private final class SyntheticDocument extends Reader {
+    private int     remainingRecords;
+    private int     index;
+    private int     end;
+    private boolean opened;
+    private boolean closed;
+
+    SyntheticDocument(final int numRecords) {
+      this.remainingRecords = numRecords;
+    }
+
+    @Override
+    public int read(final char[] buf, final int off, final int len) {
+      if (len == 0) {
+        return 0;
+      }
+
+      if (index == end) {
+        if (!opened) {
+          opened = true;
+          buf[off] = '[';
+          nextBlock(SEPARATOR.length());
+          return 1;
+        }
+        if (remainingRecords == 0) {
+          if (closed) {
+            return -1;
+          }
+          closed = true;
+          buf[off] = ']';
+          return 1;
+        }
+        nextBlock(0);
+      }
+
+      int n = Math.min(len, end - index);
+      System.arraycopy(block, index, buf, off, n);
+      index += n;
+      return n;
+    }
+
+    private void nextBlock(final int skip) {
+      int n = Math.min(remainingRecords, BLOCK_RECORDS);
+      remainingRecords -= n;
+      index = skip;
+      end   = n == 0 ? skip : recordStart[n];
+    }
+
+    @Override
+    public void close() { }
+  }
+
+  @Override
+  public Object benchmark() {
+    throw new RuntimeException("Should never be reached");
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    throw new RuntimeException("Should never be reached");
+  }
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import json.JsonUtf8Parser;
+
+/**
+ * Variant of {@link Json} that parses the same input into the same tree
+ * with {@link JsonUtf8Parser}, directly from UTF-8 bytes in an off-heap
+ * buffer, as it would for a memory-mapped file. String values are not
+ * accessed, and thus never decoded.
+ */
+public final class JsonUtf8 extends Json {
+
+  private static final ByteBuffer INPUT = utf8(rapBenchmarkMinified);
+
+  private static ByteBuffer utf8(final String string) {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  @Override
+  public Object benchmark() {
+    return (new JsonUtf8Parser(INPUT)).parse();
+  }
+}
@@ -5,7 +5,7 @@
  */
 import nbody.NBodySystem;
 
-public final class NBody extends Benchmark {
+public class NBody extends Benchmark {
 
   @Override
   public boolean innerBenchmarkLoop(final int innerIterations) {
@@ -17,7 +17,7 @@ public final class NBody extends Benchmark {
     return verifyResult(system.energy(), innerIterations);
   }
 
-  private boolean verifyResult(final double result, final int innerIterations) {
+  protected boolean verifyResult(final double result, final int innerIterations) {
     if (innerIterations == 250000) {
       return result == -0.1690859889909308;
     }
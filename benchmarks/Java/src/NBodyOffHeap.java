@@ -0,0 +1,24 @@
+/* The Computer Language Benchmarks Game
+ * http://shootout.alioth.debian.org/
+ *
+ * Based on nbody.java and adapted basde on the SOM version.
+ */
+import nbody.OffHeapNBodySystem;
+
+/**
+ * Variant of {@link NBody} that keeps the state of the bodies off-heap, in
+ * an arena that is closed at the end of each run.
+ */
+public final class NBodyOffHeap extends NBody {
+
+  @Override
+  public boolean innerBenchmarkLoop(final int innerIterations) {
+    try (OffHeapNBodySystem system = new OffHeapNBodySystem()) {
+      for (int i = 0; i < innerIterations; i++) {
+        system.advance(0.01);
+      }
+
+      return verifyResult(system.energy(), innerIterations);
+    }
+  }
+}
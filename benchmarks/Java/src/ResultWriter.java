@@ -0,0 +1,294 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes one structured record per measured iteration, either as JSON Lines
+ * or as CSV.
+ *
+ * <p>Records are encoded directly into a preallocated buffer, which is only
+ * handed to the file channel when it fills up or the writer is closed. Thus,
+ * the measurement loop does not perform I/O for most iterations.
+ */
+public final class ResultWriter {
+
+  public enum Format { JSONL, CSV }
+
+  private enum Mode { JSON, CSV_HEADER, CSV }
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Upper bound for the size of a single encoded record. */
+  private static final int MAX_RECORD_SIZE = 1024;
+
+  private final FileChannel channel;
+  private final ByteBuffer  buffer;
+  private final Format      format;
+
+  private Mode    mode;
+  private boolean firstField;
+  private boolean headerWritten;
+
+  public ResultWriter(final String path, final Format format) {
+    this.format = format;
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    try {
+      this.channel = FileChannel.open(Paths.get(path),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open result file: " + path, e);
+    }
+    writeJvmMetadata();
+  }
+
+  public static Format formatFromName(final String name) {
+    switch (name) {
+      case "jsonl": return Format.JSONL;
+      case "csv":   return Format.CSV;
+      default:
+        throw new RuntimeException("Unknown result format: " + name);
+    }
+  }
+
+  private void writeJvmMetadata() {
+    RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    String[] meta = new String[] {
+        "vm_name",      runtime.getVmName(),
+        "vm_vendor",    runtime.getVmVendor(),
+        "vm_version",   runtime.getVmVersion(),
+        "java_version", System.getProperty("java.version"),
+        "os_name",      System.getProperty("os.name"),
+        "os_arch",      System.getProperty("os.arch"),
+        "processors",   String.valueOf(Runtime.getRuntime().availableProcessors()),
+        "vm_args",      String.join(" ", runtime.getInputArguments())};
+
+    if (format == Format.JSONL) {
+      mode = Mode.JSON;
+      beginRecord();
+      stringField("type", "jvm");
+      for (int i = 0; i < meta.length; i += 2) {
+        stringField(meta[i], meta[i + 1]);
+      }
+      endRecord();
+    } else {
+      for (int i = 0; i < meta.length; i += 2) {
+        putAscii("# ");
+        putAscii(meta[i]);
+        putAscii(": ");
+        for (int j = 0; j < meta[i + 1].length(); j++) {
+          putPrintable(meta[i + 1].charAt(j));
+        }
+        putAscii("\n");
+      }
+    }
+    flush();
+  }
+
+  public void write(final IterationRecord record) {
+    if (buffer.remaining() < MAX_RECORD_SIZE) {
+      flush();
+    }
+
+    if (format == Format.JSONL) {
+      mode = Mode.JSON;
+    } else {
+      if (!headerWritten) {
+        mode = Mode.CSV_HEADER;
+        writeFields(record);
+        headerWritten = true;
+      }
+      mode = Mode.CSV;
+    }
+    writeFields(record);
+  }
+
+  private void writeFields(final IterationRecord record) {
+    beginRecord();
+    if (mode == Mode.JSON) {
+      stringField("type", "iteration");
+    }
+    stringField("benchmark",       record.benchmark);
+    longField("iteration",         record.iteration);
+    longField("start_ns",          record.startNanos);
+    longField("end_ns",            record.endNanos);
+    longField("runtime_us",        record.runTimeMicros());
+    longField("inner_iterations",  record.innerIterations);
+    booleanField("verified",       record.verified);
+    booleanField("steady_state",   record.steadyState);
+    if (record.allocatedBytes >= 0) {
+      longField("allocated_bytes", record.allocatedBytes);
+    }
+    if (record.gcCount >= 0) {
+      longField("gc_count",        record.gcCount);
+      longField("gc_time_ms",      record.gcTimeMillis);
+      longField("compile_time_ms", record.compileTimeMillis);
+    }
+    endRecord();
+  }
+
+  public void close() {
+    flush();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to close result file", e);
+    }
+  }
+
+  private void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write results", e);
+    }
+    buffer.clear();
+  }
+
+  private void beginRecord() {
+    firstField = true;
+    if (mode == Mode.JSON) {
+      buffer.put((byte) '{');
+    }
+  }
+
+  private void endRecord() {
+    if (mode == Mode.JSON) {
+      buffer.put((byte) '}');
+    }
+    buffer.put((byte) '\n');
+  }
+
+  private boolean fieldName(final String name) {
+    if (!firstField) {
+      buffer.put((byte) ',');
+    }
+    firstField = false;
+
+    switch (mode) {
+      case JSON:
+        buffer.put((byte) '"');
+        putAscii(name);
+        putAscii("\":");
+        return true;
+      case CSV_HEADER:
+        putAscii(name);
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  private void stringField(final String name, final String value) {
+    if (fieldName(name)) {
+      buffer.put((byte) '"');
+      if (mode == Mode.JSON) {
+        putJsonString(value);
+      } else {
+        putCsvString(value);
+      }
+      buffer.put((byte) '"');
+    }
+  }
+
+  private void longField(final String name, final long value) {
+    if (fieldName(name)) {
+      putLong(value);
+    }
+  }
+
+  private void booleanField(final String name, final boolean value) {
+    if (fieldName(name)) {
+      putAscii(value ? "true" : "false");
+    }
+  }
+
+  private void putAscii(final String str) {
+    for (int i = 0; i < str.length(); i++) {
+      buffer.put((byte) str.charAt(i));
+    }
+  }
+
+  /**
+   * Writes a string, escaping it for JSON, and replacing non-ASCII
+   * characters, which do not occur in benchmark names.
+   */
+  private void putJsonString(final String str) {
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c == '"' || c == '\\') {
+        buffer.put((byte) '\\');
+        buffer.put((byte) c);
+      } else {
+        putPrintable(c);
+      }
+    }
+  }
+
+  /**
+   * Writes the content of a quoted CSV field, where a quote is escaped by
+   * doubling it, and a backslash has no special meaning.
+   */
+  private void putCsvString(final String str) {
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c == '"') {
+        buffer.put((byte) '"');
+      }
+      putPrintable(c);
+    }
+  }
+
+  private void putPrintable(final char c) {
+    if (c < 0x20 || c > 0x7e) {
+      buffer.put((byte) '?');
+    } else {
+      buffer.put((byte) c);
+    }
+  }
+
+  private void putLong(final long value) {
+    if (value < 0) {
+      buffer.put((byte) '-');
+      if (value == Long.MIN_VALUE) {
+        putAscii("9223372036854775808");
+        return;
+      }
+      putLong(-value);
+      return;
+    }
+    if (value >= 10) {
+      putLong(value / 10);
+    }
+    buffer.put((byte) ('0' + (int) (value % 10)));
+  }
+}
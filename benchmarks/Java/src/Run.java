@@ -23,76 +23,229 @@ import java.util.function.Supplier;
  * THE SOFTWARE.
  */
 public final class Run {
+  /** Number of measurements per candidate size during calibration. */
+  private static final int CALIBRATION_RUNS = 3;
+
   private final String name;
+  private final BenchmarkDescriptor descriptor;
   private final Supplier<Benchmark> benchmarkSuite;
   private int numIterations;
   private int innerIterations;
   private long total;
+  private int  completedIterations;
+  private int  numThreads;
+  private long calibrationTarget;
+
+  private SteadyStateDetector steadyState;
+  private int                 postWarmupIterations;
+  private boolean             steadyStateReached;
+
+  private AllocationCounter allocationCounter;
+  private VmEventMonitor    vmEvents;
+  private boolean           emitJfrEvents;
+  private FlightRecording   flightRecording;
+
+  private ResultWriter          resultWriter;
+  private final IterationRecord record;
 
   public Run(final String name) {
     this.name = name;
-    this.benchmarkSuite = getSuiteFromName(name);
+    this.descriptor = BenchmarkRegistry.getDefault().lookup(name);
+    this.benchmarkSuite = descriptor.getFactory();
     numIterations   = 1;
-    innerIterations = 1;
-  }
-
-  private static Supplier<Benchmark> getSuiteFromName(final String name) {
-    switch (name) {
-      case "Bounce":      return () -> new Bounce();
-      case "CD":          return () -> new CD();
-      case "DeltaBlue":   return () -> new DeltaBlue();
-      case "Havlak":      return () -> new Havlak();
-      case "Json":        return () -> new Json();
-      case "List":        return () -> new List();
-      case "Mandelbrot":  return () -> new Mandelbrot();
-      case "NBody":       return () -> new NBody();
-      case "Permute":     return () -> new Permute();
-      case "Queens":      return () -> new Queens();
-      case "Richards":    return () -> new Richards();
-      case "Sieve":       return () -> new Sieve();
-      case "Storage":     return () -> new Storage();
-      case "Towers":      return () -> new Towers();
-      default:
-        throw new RuntimeException("No benchmark found with the name: " + name);
-    }
+    innerIterations = descriptor.getDefaultInnerIterations();
+    numThreads      = 1;
+    record = new IterationRecord();
+    record.benchmark = name;
   }
 
   public void runBenchmark() {
+    if (calibrationTarget > 0) {
+      calibrate(benchmarkSuite.get());
+    }
+
+    if (numThreads > 1) {
+      new ThroughputRun(name, benchmarkSuite, numIterations, innerIterations)
+          .runWithBaseline(numThreads);
+      return;
+    }
+
     // Checkstyle: stop
     System.out.println("Starting " + name + " benchmark ...");
     // Checkstyle: resume
 
+    if (flightRecording != null) {
+      flightRecording.start();
+    }
+
     doRuns(benchmarkSuite.get());
     reportBenchmark();
 
+    if (flightRecording != null) {
+      flightRecording.stopAndDump();
+    }
+
+    if (resultWriter != null) {
+      resultWriter.close();
+    }
+
     // Checkstyle: stop
     System.out.println();
     // Checkstyle: resume
   }
 
-  private void measure(final Benchmark bench) {
+  /**
+   * Determines the inner iterations needed for an iteration to take at least
+   * the calibration target time.
+   *
+   * <p>Benchmarks for which the result depends on the inner iterations can
+   * only be verified for specific sizes. For them, the calibration picks the
+   * smallest of these sizes that reaches the target, or the largest one.
+   */
+  private void calibrate(final Benchmark bench) {
+    int[] verifiedSizes = descriptor.getVerifiedSizes();
+    int sizeIdx = 0;
+    int inner = verifiedSizes == null ? 1 : verifiedSizes[0];
+
+    while (true) {
+      long time = Long.MAX_VALUE;
+      for (int i = 0; i < CALIBRATION_RUNS; i++) {
+        long startTime = System.nanoTime();
+        if (!bench.innerBenchmarkLoop(inner)) {
+          throw new RuntimeException("Benchmark failed with incorrect result");
+        }
+        time = Math.min(time, System.nanoTime() - startTime);
+      }
+
+      if (time >= calibrationTarget) {
+        break;
+      }
+
+      if (verifiedSizes == null) {
+        // grow at least by 2x, but directly aim for the target if possible
+        long estimate = time == 0 ? 2L * inner : inner * calibrationTarget / time;
+        long next = Math.max(2L * inner, estimate);
+        if (next > Integer.MAX_VALUE) {
+          break;
+        }
+        inner = (int) next;
+      } else {
+        sizeIdx += 1;
+        if (sizeIdx >= verifiedSizes.length) {
+          break;
+        }
+        inner = verifiedSizes[sizeIdx];
+      }
+    }
+
+    innerIterations = inner;
+
+    // Checkstyle: stop
+    System.out.println(name + ": calibrated inner iterations: " + inner);
+    // Checkstyle: resume
+  }
+
+  private long measure(final Benchmark bench, final int iteration) {
+    BenchmarkIterationEvent event = null;
+    if (emitJfrEvents) {
+      event = new BenchmarkIterationEvent();
+    }
+    if (vmEvents != null) {
+      vmEvents.start();
+    }
+    long allocatedBefore = allocationCounter == null ? 0 : allocationCounter.allocatedBytes();
+
+    if (event != null) {
+      event.begin();
+    }
     long startTime = System.nanoTime();
-    if (!bench.innerBenchmarkLoop(innerIterations)) {
+    boolean verified = bench.innerBenchmarkLoop(innerIterations);
+    long endTime = System.nanoTime();
+    if (event != null) {
+      event.end();
+    }
+
+    long allocated = -1;
+    if (allocationCounter != null) {
+      allocated = allocationCounter.allocatedBytes() - allocatedBefore;
+    }
+    if (vmEvents != null) {
+      vmEvents.stop(record);
+    }
+
+    if (event != null && event.shouldCommit()) {
+      event.benchmark       = name;
+      event.iteration       = iteration;
+      event.innerIterations = innerIterations;
+      event.verified        = verified;
+      event.commit();
+    }
+
+    if (resultWriter != null) {
+      record.iteration       = iteration;
+      record.startNanos      = startTime;
+      record.endNanos        = endTime;
+      record.innerIterations = innerIterations;
+      record.verified        = verified;
+      record.steadyState     = steadyStateReached;
+      record.allocatedBytes  = allocated;
+      resultWriter.write(record);
+    }
+
+    if (!verified) {
+      if (resultWriter != null) {
+        resultWriter.close();
+      }
       throw new RuntimeException("Benchmark failed with incorrect result");
     }
-    long endTime = System.nanoTime();
+
     long runTime = (endTime - startTime) / 1000;
 
     printResult(runTime);
+    if (allocated >= 0) {
+      printAllocation(allocated);
+    }
+    if (vmEvents != null) {
+      printVmEvents();
+    }
 
     total += runTime;
+    completedIterations += 1;
+    return runTime;
   }
 
   private void doRuns(final Benchmark bench) {
-    for (int i = 0; i < numIterations; i++) {
-      measure(bench);
+    if (steadyState == null) {
+      for (int i = 0; i < numIterations; i++) {
+        measure(bench, i);
+      }
+      return;
+    }
+
+    // numIterations is the upper bound, if steady state is never reached
+    int remaining = numIterations;
+    for (int i = 0; i < remaining; i++) {
+      long runTime = measure(bench, i);
+
+      if (!steadyStateReached && steadyState.add(runTime)) {
+        steadyStateReached = true;
+        remaining = Math.min(numIterations, i + 1 + postWarmupIterations);
+        printSteadyState(i + 1);
+      }
     }
   }
 
   private void reportBenchmark() {
     // Checkstyle: stop
-    System.out.println(name + ": iterations=" + numIterations +
-        " average: " + (total / numIterations) + "us total: " + total + "us\n");
+    System.out.println(name + ": iterations=" + completedIterations +
+        " average: " + (total / completedIterations) + "us total: " + total + "us\n");
+    // Checkstyle: resume
+  }
+
+  private void printSteadyState(final int warmupIterations) {
+    // Checkstyle: stop
+    System.out.println(name + ": steady state after " + warmupIterations +
+        " iterations, CoV: " + steadyState.coefficientOfVariation());
     // Checkstyle: resume
   }
 
@@ -102,7 +255,26 @@ public final class Run {
     // Checkstyle: resume
   }
 
+  private void printAllocation(final long allocated) {
+    // Checkstyle: stop
+    System.out.println(name + ": iterations=1 allocated: " + allocated +
+        "B per inner iteration: " + (allocated / innerIterations) + "B");
+    // Checkstyle: resume
+  }
+
+  private void printVmEvents() {
+    // Checkstyle: stop
+    System.out.println(name + ": iterations=1 gc: " + record.gcCount +
+        " collections " + record.gcTimeMillis + "ms compilation: " +
+        record.compileTimeMillis + "ms");
+    // Checkstyle: resume
+  }
+
   public void printTotal() {
+    if (numThreads > 1) {
+      // throughput runs report ops/s instead
+      return;
+    }
     // Checkstyle: stop
     System.out.println("Total Runtime: " + total + "us");
     // Checkstyle: resume
@@ -115,4 +287,46 @@ public final class Run {
   public void setInnerIterations(final int innerIterations) {
     this.innerIterations = innerIterations;
   }
+
+  public void setAllocationCounter(final AllocationCounter counter) {
+    this.allocationCounter = counter;
+  }
+
+  public void setVmEventMonitor(final VmEventMonitor monitor) {
+    this.vmEvents = monitor;
+  }
+
+  /**
+   * Emits a {@link BenchmarkIterationEvent} for each iteration. If a file is
+   * given, a flight recording is started before the first iteration, and
+   * written to the file after the last one.
+   */
+  public void setFlightRecorder(final String file, final String settings) {
+    this.emitJfrEvents = true;
+    if (file != null) {
+      this.flightRecording = new FlightRecording(file, settings);
+    }
+  }
+
+  /**
+   * Chooses the inner iterations automatically, so that an iteration takes
+   * at least the given time.
+   */
+  public void setCalibrationTarget(final long nanos) {
+    this.calibrationTarget = nanos;
+  }
+
+  public void setNumThreads(final int numThreads) {
+    this.numThreads = numThreads;
+  }
+
+  public void setSteadyStateDetection(final SteadyStateDetector detector,
+      final int postWarmupIterations) {
+    this.steadyState = detector;
+    this.postWarmupIterations = postWarmupIterations;
+  }
+
+  public void setResultWriter(final ResultWriter resultWriter) {
+    this.resultWriter = resultWriter;
+  }
 }
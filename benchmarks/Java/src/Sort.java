@@ -0,0 +1,134 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import som.Random;
+import som.Vector;
+
+/**
+ * Sorts a vector of elements with few distinct keys, using either the
+ * quicksort of the SOM class library, with a comparator or in the natural
+ * order of the elements, the stable merge sort, or the sort by int key. Each sort is registered as a separate benchmark, so that their
+ * run times can be compared. The stable sorts need to keep elements with
+ * equal keys in their original order.
+ */
+public final class Sort extends Benchmark {
+  private static final int SIZE     = 1000;
+  private static final int NUM_KEYS = 64;
+
+  /** The sort algorithm to benchmark. */
+  public enum Kind { QUICK, NATURAL, STABLE, INT_KEY }
+
+  private static final class Item implements Comparable<Item> {
+    final int key;
+    final int seq;
+
+    Item(final int key, final int seq) {
+      this.key = key;
+      this.seq = seq;
+    }
+
+    @Override
+    public int compareTo(final Item o) {
+      return key - o.key;
+    }
+  }
+
+  private final Kind   kind;
+  private final Item[] items;
+
+  public Sort(final Kind kind) {
+    this.kind = kind;
+
+    Random random = new Random();
+    items = new Item[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      items[i] = new Item(random.next() % NUM_KEYS, i);
+    }
+  }
+
+  @Override
+  public Object benchmark() {
+    Vector<Item> v = fill(items);
+
+    switch (kind) {
+      case STABLE:
+        v.stableSort((a, b) -> a.key - b.key);
+        return isSorted(v, true) ? checksum(v) : -1;
+      case INT_KEY:
+        v.sortByIntKey(e -> e.key);
+        return isSorted(v, true) ? checksum(v) : -1;
+      case NATURAL:
+        v.sort(null);
+        return isSorted(v, false) ? keySum(v) : -1;
+      default:
+        v.sort((a, b) -> a.key - b.key);
+        return isSorted(v, false) ? keySum(v) : -1;
+    }
+  }
+
+  private static Vector<Item> fill(final Item[] items) {
+    Vector<Item> v = new Vector<>(items.length);
+    for (Item e : items) {
+      v.append(e);
+    }
+    return v;
+  }
+
+  private static boolean isSorted(final Vector<Item> v, final boolean stable) {
+    for (int i = 1; i < v.size(); i++) {
+      Item prev = v.at(i - 1);
+      Item cur  = v.at(i);
+      if (prev.key > cur.key) {
+        return false;
+      }
+      if (stable && prev.key == cur.key && prev.seq > cur.seq) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int checksum(final Vector<Item> v) {
+    int sum = 0;
+    for (int i = 0; i < v.size(); i++) {
+      sum = (sum * 31 + v.at(i).seq) & 0xFFFFFF;
+    }
+    return sum;
+  }
+
+  private static int keySum(final Vector<Item> v) {
+    int sum = 0;
+    for (int i = 0; i < v.size(); i++) {
+      sum += i * v.at(i).key;
+    }
+    return sum;
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    if (kind == Kind.QUICK || kind == Kind.NATURAL) {
+      return 21129679 == (int) result;
+    }
+    // the stable sorts have to produce the same order
+    return 4642878 == (int) result;
+  }
+}
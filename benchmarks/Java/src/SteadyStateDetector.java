@@ -0,0 +1,82 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * Detects steady state online with a sliding-window coefficient of variation.
+ *
+ * <p>The detector keeps the run times of the last {@code windowSize}
+ * iterations. Steady state is assumed as soon as the window is full and the
+ * standard deviation of the run times in it, relative to their mean, is at
+ * most {@code maxCoV}.
+ */
+public final class SteadyStateDetector {
+  private final long[] window;
+  private final double maxCoV;
+
+  private int numSamples;
+  private int next;
+
+  public SteadyStateDetector(final int windowSize, final double maxCoV) {
+    if (windowSize < 2) {
+      throw new RuntimeException("Steady-state window needs at least 2 iterations");
+    }
+    this.window = new long[windowSize];
+    this.maxCoV = maxCoV;
+  }
+
+  /**
+   * Adds the run time of the latest iteration.
+   *
+   * @return true, if the last {@code windowSize} iterations are stable
+   */
+  public boolean add(final long runTime) {
+    window[next] = runTime;
+    next = (next + 1) % window.length;
+    if (numSamples < window.length) {
+      numSamples += 1;
+      if (numSamples < window.length) {
+        return false;
+      }
+    }
+
+    return coefficientOfVariation() <= maxCoV;
+  }
+
+  public double coefficientOfVariation() {
+    double sum = 0;
+    for (int i = 0; i < numSamples; i++) {
+      sum += window[i];
+    }
+    double mean = sum / numSamples;
+    if (mean == 0) {
+      return 0;
+    }
+
+    double squares = 0;
+    for (int i = 0; i < numSamples; i++) {
+      double d = window[i] - mean;
+      squares += d * d;
+    }
+    return Math.sqrt(squares / (numSamples - 1)) / mean;
+  }
+}
@@ -0,0 +1,281 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Runs multiple benchmarks in a single VM to measure how they affect each
+ * other, for instance by polluting type profiles of shared code such as the
+ * som collections.
+ *
+ * <p>In the <em>mixed</em> ordering, each round executes one iteration of
+ * every benchmark, in an order that is shuffled per round with a seeded
+ * random number generator. In the <em>isolated</em> ordering, each benchmark
+ * runs alone in a fresh VM. For both, the steady-state time is the average
+ * run time of the last iterations of a benchmark.
+ */
+public final class SuiteHarness {
+
+  private static final class Entry {
+    final BenchmarkDescriptor descriptor;
+    final Benchmark           bench;
+    final long[]              runTimes;
+
+    Entry(final BenchmarkDescriptor descriptor, final int numRounds) {
+      this.descriptor = descriptor;
+      this.bench      = descriptor.getFactory().get();
+      this.runTimes   = new long[numRounds];
+    }
+
+    String getName() {
+      return descriptor.getName();
+    }
+  }
+
+  private final BenchmarkDescriptor[] benchmarks;
+  private final int  numRounds;
+  private final int  steadyIterations;
+  private final long seed;
+
+  public SuiteHarness(final BenchmarkDescriptor[] benchmarks, final int numRounds,
+      final int steadyIterations, final long seed) {
+    this.benchmarks       = benchmarks;
+    this.numRounds        = numRounds;
+    this.steadyIterations = Math.min(steadyIterations, numRounds);
+    this.seed             = seed;
+  }
+
+  /**
+   * @return the steady-state time of each benchmark in microseconds
+   */
+  public long[] runMixed() {
+    Entry[] entries = new Entry[benchmarks.length];
+    for (int i = 0; i < benchmarks.length; i++) {
+      entries[i] = new Entry(benchmarks[i], numRounds);
+    }
+
+    Random random = new Random(seed);
+    Entry[] order = entries.clone();
+
+    for (int round = 0; round < numRounds; round++) {
+      shuffle(order, random);
+      for (Entry e : order) {
+        e.runTimes[round] = measure(e);
+      }
+    }
+
+    long[] steadyTimes = new long[entries.length];
+    for (int i = 0; i < entries.length; i++) {
+      steadyTimes[i] = steadyStateTime(entries[i].runTimes);
+      printSteadyState(entries[i].getName(), steadyTimes[i]);
+    }
+    return steadyTimes;
+  }
+
+  private static void shuffle(final Entry[] order, final Random random) {
+    for (int i = order.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Entry tmp = order[i];
+      order[i] = order[j];
+      order[j] = tmp;
+    }
+  }
+
+  private static long measure(final Entry e) {
+    int innerIterations = e.descriptor.getDefaultInnerIterations();
+
+    long startTime = System.nanoTime();
+    if (!e.bench.innerBenchmarkLoop(innerIterations)) {
+      throw new RuntimeException(e.getName() + " failed with incorrect result");
+    }
+    long endTime = System.nanoTime();
+    long runTime = (endTime - startTime) / 1000;
+
+    // Checkstyle: stop
+    System.out.println(e.getName() + ": iterations=1 runtime: " + runTime + "us");
+    // Checkstyle: resume
+    return runTime;
+  }
+
+  private long steadyStateTime(final long[] runTimes) {
+    long sum = 0;
+    for (int i = runTimes.length - steadyIterations; i < runTimes.length; i++) {
+      sum += runTimes[i];
+    }
+    return sum / steadyIterations;
+  }
+
+  private static void printSteadyState(final String name, final long time) {
+    // Checkstyle: stop
+    System.out.println(name + ": steady-state: " + time + "us");
+    // Checkstyle: resume
+  }
+
+  /**
+   * Runs each benchmark in its own VM, using the same class path and VM
+   * arguments as the current one.
+   *
+   * @return the steady-state time of each benchmark in microseconds
+   */
+  public long[] runIsolated() {
+    long[] steadyTimes = new long[benchmarks.length];
+    for (int i = 0; i < benchmarks.length; i++) {
+      steadyTimes[i] = runInChildVm(benchmarks[i].getName());
+    }
+    return steadyTimes;
+  }
+
+  private long runInChildVm(final String name) {
+    ArrayList<String> command = new ArrayList<>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(SuiteHarness.class.getName());
+    command.add("--ordering=mixed");
+    command.add("--only=" + name);
+    command.add("--steady=" + steadyIterations);
+    command.add(String.valueOf(numRounds));
+
+    String steadyPrefix = name + ": steady-state: ";
+    long steadyTime = -1;
+
+    try {
+      Process child = new ProcessBuilder(command)
+          .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+      try (BufferedReader out = new BufferedReader(
+          new InputStreamReader(child.getInputStream()))) {
+        String line;
+        while ((line = out.readLine()) != null) {
+          // Checkstyle: stop
+          System.out.println(line);
+          // Checkstyle: resume
+          if (line.startsWith(steadyPrefix)) {
+            steadyTime = Long.parseLong(line.substring(
+                steadyPrefix.length(), line.length() - 2));
+          }
+        }
+      }
+      if (child.waitFor() != 0 || steadyTime < 0) {
+        throw new RuntimeException("Isolated run of " + name + " failed");
+      }
+    } catch (IOException | InterruptedException e) {
+      throw new RuntimeException("Failed to run " + name + " in a separate VM", e);
+    }
+    return steadyTime;
+  }
+
+  private void reportComparison(final long[] isolated, final long[] mixed) {
+    // Checkstyle: stop
+    System.out.println();
+    for (int i = 0; i < benchmarks.length; i++) {
+      long slowdown = Math.round(100.0 * mixed[i] / isolated[i]) - 100;
+      System.out.println(benchmarks[i].getName() + ": isolated: " + isolated[i] +
+          "us mixed: " + mixed[i] + "us difference: " + slowdown + "%");
+    }
+    // Checkstyle: resume
+  }
+
+  private static void printUsage() {
+    // Checkstyle: stop
+    System.out.println("SuiteHarness [options] num-rounds");
+    System.out.println();
+    System.out.println("  num-rounds          - number of iterations of each benchmark");
+    System.out.println();
+    System.out.println("Options:");
+    System.out.println("  --ordering=o        - mixed, isolated, or both, default: both");
+    System.out.println("  --seed=n            - seed for shuffling the benchmarks, default: 1");
+    System.out.println("  --tag=tag           - only run benchmarks with the given tag");
+    System.out.println("  --all               - include variants and extras, which are");
+    System.out.println("                        otherwise only run when selected by tag");
+    System.out.println("  --only=name         - only run the named benchmark");
+    System.out.println("  --steady=n          - number of final iterations averaged for the");
+    System.out.println("                        steady-state time, default: half the rounds");
+    // Checkstyle: resume
+  }
+
+  public static void main(final String[] args) {
+    String ordering  = "both";
+    long   seed      = 1;
+    String tag       = null;
+    String only      = null;
+    boolean all      = false;
+    int    steady    = -1;
+    int    numRounds = -1;
+
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        numRounds = Integer.valueOf(arg);
+        continue;
+      }
+
+      int eq = arg.indexOf('=');
+      String option = eq == -1 ? arg.substring(2) : arg.substring(2, eq);
+      String value  = eq == -1 ? null : arg.substring(eq + 1);
+
+      switch (option) {
+        case "ordering": ordering = value; break;
+        case "seed":     seed     = Long.valueOf(value); break;
+        case "tag":      tag      = value; break;
+        case "only":     only     = value; break;
+        case "all":      all      = true; break;
+        case "steady":   steady   = Integer.valueOf(value); break;
+        default:
+          throw new RuntimeException("Unknown option: " + arg);
+      }
+    }
+
+    if (numRounds < 1) {
+      printUsage();
+      System.exit(1);
+    }
+
+    BenchmarkRegistry registry = BenchmarkRegistry.getDefault();
+    BenchmarkDescriptor[] benchmarks = only != null
+        ? new BenchmarkDescriptor[] {registry.lookup(only)}
+        : registry.withTag(tag, all);
+
+    SuiteHarness suite = new SuiteHarness(benchmarks, numRounds,
+        steady > 0 ? steady : Math.max(1, numRounds / 2), seed);
+
+    switch (ordering) {
+      case "mixed":
+        suite.runMixed();
+        break;
+      case "isolated":
+        suite.runIsolated();
+        break;
+      case "both":
+        long[] isolated = suite.runIsolated();
+        long[] mixed    = suite.runMixed();
+        suite.reportComparison(isolated, mixed);
+        break;
+      default:
+        throw new RuntimeException("Unknown ordering: " + ordering);
+    }
+  }
+}
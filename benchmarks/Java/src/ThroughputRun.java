@@ -0,0 +1,183 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent instances of a benchmark on multiple threads and reports
+ * their throughput.
+ *
+ * <p>Each thread creates its own benchmark object, waits for all other
+ * threads at a barrier, and then executes all iterations. Since the
+ * benchmarks do not share state, a perfect scaling of the aggregate
+ * throughput is only prevented by contention in the VM, for instance in the
+ * GC, the allocator, or the JIT compiler.
+ *
+ * <p>To compute the scaling efficiency, the single-threaded and the
+ * multi-threaded runs alternate. The first round of both is discarded as
+ * warmup, so that neither measurement includes the JIT compilation of the
+ * benchmark.
+ */
+public final class ThroughputRun {
+  private static final int WARMUP_ROUNDS   = 1;
+  private static final int MEASURED_ROUNDS = 3;
+
+  private final String name;
+  private final Supplier<Benchmark> benchmarkSuite;
+  private final int numIterations;
+  private final int innerIterations;
+
+  public ThroughputRun(final String name,
+      final Supplier<Benchmark> benchmarkSuite, final int numIterations,
+      final int innerIterations) {
+    this.name            = name;
+    this.benchmarkSuite  = benchmarkSuite;
+    this.numIterations   = numIterations;
+    this.innerIterations = innerIterations;
+  }
+
+  private final class Worker extends Thread {
+    private final CyclicBarrier barrier;
+    private final Benchmark bench;
+
+    private long      startTime;
+    private long      endTime;
+    private Throwable failure;
+
+    Worker(final int id, final CyclicBarrier barrier) {
+      super(name + "-" + id);
+      this.barrier = barrier;
+      this.bench   = benchmarkSuite.get();
+    }
+
+    @Override
+    public void run() {
+      try {
+        barrier.await();
+        startTime = System.nanoTime();
+        for (int i = 0; i < numIterations; i++) {
+          if (!bench.innerBenchmarkLoop(innerIterations)) {
+            throw new RuntimeException("Benchmark failed with incorrect result");
+          }
+        }
+        endTime = System.nanoTime();
+      } catch (Throwable t) {
+        failure = t;
+      }
+    }
+
+    double opsPerSecond() {
+      return throughput(endTime - startTime);
+    }
+  }
+
+  private double throughput(final long nanos) {
+    return (double) numIterations * innerIterations * 1e9 / nanos;
+  }
+
+  /**
+   * Runs the benchmark on the given number of threads.
+   *
+   * @return the aggregate throughput of all threads in operations per second
+   */
+  public double run(final int numThreads) {
+    return run(numThreads, true);
+  }
+
+  private double run(final int numThreads, final boolean report) {
+    CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+    Worker[] workers = new Worker[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      workers[i] = new Worker(i, barrier);
+      workers[i].start();
+    }
+
+    long startTime;
+    try {
+      barrier.await();
+      startTime = System.nanoTime();
+      for (Worker w : workers) {
+        w.join();
+      }
+    } catch (InterruptedException | BrokenBarrierException e) {
+      throw new RuntimeException("Throughput run was interrupted", e);
+    }
+    long endTime = System.nanoTime();
+
+    for (int i = 0; i < numThreads; i++) {
+      Worker w = workers[i];
+      if (w.failure != null) {
+        throw new RuntimeException("Thread " + i + " failed", w.failure);
+      }
+      if (!report) {
+        continue;
+      }
+      // Checkstyle: stop
+      System.out.println(name + ": threads=" + numThreads + " thread=" + i +
+          " ops/s: " + Math.round(w.opsPerSecond()));
+      // Checkstyle: resume
+    }
+
+    double aggregate = numThreads * throughput(endTime - startTime);
+    if (!report) {
+      return aggregate;
+    }
+    // Checkstyle: stop
+    System.out.println(name + ": threads=" + numThreads +
+        " aggregate ops/s: " + Math.round(aggregate));
+    // Checkstyle: resume
+    return aggregate;
+  }
+
+  /**
+   * Measures the single-threaded throughput as baseline, and the throughput
+   * with {@code numThreads} threads. Both are measured in alternating rounds
+   * after discarded warmup rounds, and the efficiency is computed from the
+   * mean of the measured rounds.
+   */
+  public void runWithBaseline(final int numThreads) {
+    // Checkstyle: stop
+    System.out.println("Starting " + name + " throughput benchmark ...");
+    // Checkstyle: resume
+
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      run(1, false);
+      run(numThreads, false);
+    }
+
+    double baseline  = 0;
+    double aggregate = 0;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      baseline  += run(1, true);
+      aggregate += run(numThreads, true);
+    }
+    double efficiency = aggregate / (numThreads * baseline);
+
+    // Checkstyle: stop
+    System.out.println(name + ": threads=" + numThreads +
+        " scaling efficiency: " + Math.round(efficiency * 100) + "%");
+    System.out.println();
+    // Checkstyle: resume
+  }
+}
@@ -0,0 +1,128 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import som.Vector;
+
+/**
+ * Exercises the removal of elements from the middle of vectors, which is
+ * what {@code Variable.removeConstraint} does in DeltaBlue whenever a
+ * constraint is destroyed. Constraints are attached to the constraint lists
+ * of both of their variables, and in every round most of them are detached
+ * again, either one at a time with {@code remove} or {@code removeInPlace},
+ * or with a single {@code removeIf} per list.
+ *
+ * <p>The lists of a round are correct, if they hold only the constraints
+ * that were kept. The result is the number of references left in all lists
+ * over all rounds, which does not depend on how they were removed.
+ */
+public final class VectorRemove extends Benchmark {
+  private static final int NUM_VARIABLES   = 20;
+  private static final int NUM_CONSTRAINTS = 500;
+  private static final int ROUNDS          = 4;
+
+  private static final class Constraint {
+    final int id;
+    final int var1;
+    final int var2;
+
+    Constraint(final int id) {
+      this.id = id;
+      // walk around the ring of variables with a growing stride, so that
+      // each list gets constraints to many different neighbors
+      this.var1 = id % NUM_VARIABLES;
+      this.var2 = (id + 1 + id / NUM_VARIABLES) % NUM_VARIABLES;
+    }
+
+    boolean isKeptIn(final int round) {
+      return id % (round + 2) == 0;
+    }
+  }
+
+  /** The way constraints are removed from the lists. */
+  public enum Mode { REMOVE, IN_PLACE, REMOVE_IF }
+
+  private final Mode         mode;
+  private final Constraint[] constraints;
+
+  public VectorRemove(final Mode mode) {
+    this.mode = mode;
+
+    constraints = new Constraint[NUM_CONSTRAINTS];
+    for (int i = 0; i < NUM_CONSTRAINTS; i++) {
+      constraints[i] = new Constraint(i);
+    }
+  }
+
+  @Override
+  public Object benchmark() {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Vector<Constraint>[] variables = new Vector[NUM_VARIABLES];
+    for (int i = 0; i < NUM_VARIABLES; i++) {
+      variables[i] = new Vector<>(2);
+    }
+
+    int remaining = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      for (Constraint c : constraints) {
+        variables[c.var1].append(c);
+        variables[c.var2].append(c);
+      }
+
+      // constraints kept in an earlier round are detached now as well,
+      // with all their references, including the ones from this round
+      final int r = round;
+      if (mode == Mode.REMOVE_IF) {
+        for (Vector<Constraint> v : variables) {
+          v.removeIf(c -> !c.isKeptIn(r));
+        }
+      } else {
+        for (Constraint c : constraints) {
+          if (!c.isKeptIn(round)) {
+            detach(variables[c.var1], c);
+            detach(variables[c.var2], c);
+          }
+        }
+      }
+
+      for (Vector<Constraint> v : variables) {
+        if (v.hasSome(c -> !c.isKeptIn(r))) {
+          return -1;
+        }
+        remaining += v.size();
+      }
+    }
+    return remaining;
+  }
+
+  private void detach(final Vector<Constraint> v, final Constraint c) {
+    if (mode == Mode.REMOVE) {
+      v.remove(c);
+    } else {
+      v.removeInPlace(c);
+    }
+  }
+
+  @Override
+  public boolean verifyResult(final Object result) {
+    return 1706 == (int) result;
+  }
+}
@@ -0,0 +1,85 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Samples the VM's garbage collection and JIT compilation counters, so that
+ * iterations can be tagged with the GC and compilation activity that
+ * happened while they ran.
+ *
+ * <p>The counters are read synchronously before and after an iteration.
+ * GC notifications would be delivered asynchronously on a separate thread,
+ * and could thus be attributed to a later iteration.
+ */
+public final class VmEventMonitor {
+  private final GarbageCollectorMXBean[] collectors;
+  private final CompilationMXBean compiler;
+
+  private long gcCount;
+  private long gcTime;
+  private long compileTime;
+
+  public VmEventMonitor() {
+    collectors = ManagementFactory.getGarbageCollectorMXBeans().toArray(
+        new GarbageCollectorMXBean[0]);
+
+    CompilationMXBean c = ManagementFactory.getCompilationMXBean();
+    compiler = c != null && c.isCompilationTimeMonitoringSupported() ? c : null;
+  }
+
+  /** Remembers the current counter values as start of an iteration. */
+  public void start() {
+    gcCount     = totalGcCount();
+    gcTime      = totalGcTime();
+    compileTime = totalCompileTime();
+  }
+
+  /** Stores the changes since {@link #start()} in the given record. */
+  public void stop(final IterationRecord record) {
+    record.gcCount           = totalGcCount() - gcCount;
+    record.gcTimeMillis      = totalGcTime() - gcTime;
+    record.compileTimeMillis = compiler == null ? -1 : totalCompileTime() - compileTime;
+  }
+
+  private long totalGcCount() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : collectors) {
+      sum += Math.max(0, gc.getCollectionCount());
+    }
+    return sum;
+  }
+
+  private long totalGcTime() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : collectors) {
+      sum += Math.max(0, gc.getCollectionTime());
+    }
+    return sum;
+  }
+
+  private long totalCompileTime() {
+    return compiler == null ? 0 : compiler.getTotalCompilationTime();
+  }
+}
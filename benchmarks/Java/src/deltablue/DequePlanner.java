@@ -0,0 +1,132 @@
+/*
+ * This benchmark is derived from Mario Wolczko's Java and Smalltalk version of
+ * DeltaBlue.
+ *
+ * It is modified to use the SOM class library and Java 8 features.
+ * License details:
+ *   http://web.archive.org/web/20050825101121/http://www.sunlabs.com/people/mario/java_benchmarking/index.html
+ */
+package deltablue;
+
+import som.Deque;
+import som.Vector;
+
+/**
+ * A {@link Planner} that keeps its work-lists in a {@link Deque} instead of
+ * a {@link Vector}. The vectors only advance their start index on
+ * {@code removeFirst()}, while the deque reuses its circular buffer. It
+ * computes the same plans.
+ *
+ * <p>Both methods that take a new mark are copied, so that the planner can
+ * keep its own mark counter.
+ */
+public final class DequePlanner extends Planner {
+  private int currentMark = 1;
+
+  @Override
+  public void incrementalAdd(final AbstractConstraint c) {
+    int mark = newMark();
+    AbstractConstraint overridden = c.satisfy(mark, this);
+
+    while (overridden != null) {
+      overridden = overridden.satisfy(mark, this);
+    }
+  }
+
+  @Override
+  protected Plan makePlan(final Vector<AbstractConstraint> sources) {
+    int mark = newMark();
+    Plan plan = new Plan();
+    Deque<AbstractConstraint> todo = new Deque<>(sources.size());
+    sources.forEach(todo::append);
+
+    while (!todo.isEmpty()) {
+      AbstractConstraint c = todo.removeFirst();
+
+      if (c.getOutput().getMark() != mark && c.inputsKnown(mark)) {
+        // not in plan already and eligible for inclusion
+        plan.append(c);
+        c.getOutput().setMark(mark);
+        addConstraintsConsumingTo(c.getOutput(), todo);
+      }
+    }
+    return plan;
+  }
+
+  @Override
+  public void propagateFrom(final Variable v) {
+    Deque<AbstractConstraint> todo = new Deque<>();
+    addConstraintsConsumingTo(v, todo);
+
+    while (!todo.isEmpty()) {
+      AbstractConstraint c = todo.removeFirst();
+      c.execute();
+      addConstraintsConsumingTo(c.getOutput(), todo);
+    }
+  }
+
+  private void addConstraintsConsumingTo(final Variable v,
+      final Deque<AbstractConstraint> coll) {
+    AbstractConstraint determiningC = v.getDeterminedBy();
+
+    v.getConstraints().forEach(c -> {
+      if (c != determiningC && c.isSatisfied()) {
+        coll.append(c);
+      }
+    });
+  }
+
+  @Override
+  public boolean addPropagate(final AbstractConstraint c, final int mark) {
+    Deque<AbstractConstraint> todo = new Deque<>();
+    todo.append(c);
+
+    while (!todo.isEmpty()) {
+      AbstractConstraint d = todo.removeFirst();
+
+      if (d.getOutput().getMark() == mark) {
+        incrementalRemove(c);
+        return false;
+      }
+      d.recalculate();
+      addConstraintsConsumingTo(d.getOutput(), todo);
+    }
+    return true;
+  }
+
+  @Override
+  protected Vector<AbstractConstraint> removePropagateFrom(final Variable out) {
+    Vector<AbstractConstraint> unsatisfied = new Vector<>();
+
+    out.setDeterminedBy(null);
+    out.setWalkStrength(Strength.absoluteWeakest());
+    out.setStay(true);
+
+    Deque<Variable> todo = new Deque<>();
+    todo.append(out);
+
+    while (!todo.isEmpty()) {
+      Variable v = todo.removeFirst();
+
+      v.getConstraints().forEach(c -> {
+        if (!c.isSatisfied()) { unsatisfied.append(c); }});
+
+      AbstractConstraint determiningC = v.getDeterminedBy();
+      v.getConstraints().forEach(c -> {
+        if (c != determiningC && c.isSatisfied()) {
+          c.recalculate();
+          todo.append(c.getOutput());
+        }
+      });
+    }
+
+    unsatisfied.sort((c1, c2) ->
+      c1.getStrength().stronger(c2.getStrength()) ? -1 : 1);
+    return unsatisfied;
+  }
+
+  private int newMark() {
+    currentMark++;
+    return currentMark;
+  }
+}
@@ -13,7 +13,7 @@ import java.util.Arrays;
 import som.ForEachInterface;
 import som.Vector;
 
-public final class Planner {
+public class Planner {
   private int currentMark;
 
   public Planner() {
@@ -232,7 +232,10 @@ public final class Planner {
   // extremes.
   //
   public static void chainTest(final int n) {
-    Planner planner = new Planner();
+    chainTest(new Planner(), n);
+  }
+
+  public static void chainTest(final Planner planner, final int n) {
     Variable[] vars = new Variable[n + 1];
     Arrays.setAll(vars, i -> new Variable());
 
@@ -264,7 +267,10 @@ public final class Planner {
   // mapping and to change the scale and offset factors.
   //
   public static void projectionTest(final int n) {
-    Planner planner = new Planner();
+    projectionTest(new Planner(), n);
+  }
+
+  public static void projectionTest(final Planner planner, final int n) {
 
     Vector<Variable> dests = new Vector<>();
 
@@ -0,0 +1,81 @@
+/*
+ * This benchmark is derived from Mario Wolczko's Java and Smalltalk version of
+ * DeltaBlue.
+ *
+ * It is modified to use the SOM class library and Java 8 features.
+ * License details:
+ *   http://web.archive.org/web/20050825101121/http://www.sunlabs.com/people/mario/java_benchmarking/index.html
+ */
+package deltablue;
+
+import som.Vector;
+
+/**
+ * A {@link Planner} that walks the constraint lists with {@code Stream}
+ * pipelines instead of {@code forEach} callbacks, to measure the overhead
+ * of the pipelines. It computes the same plans.
+ */
+public final class StreamPlanner extends Planner {
+
+  @Override
+  public void incrementalRemove(final AbstractConstraint c) {
+    Variable out = c.getOutput();
+    c.markUnsatisfied();
+    c.removeFromGraph();
+
+    Vector<AbstractConstraint> unsatisfied = removePropagateFrom(out);
+    unsatisfied.stream().forEach(this::incrementalAdd);
+  }
+
+  @Override
+  protected Plan extractPlanFromConstraints(final Vector<AbstractConstraint> constraints) {
+    Vector<AbstractConstraint> sources = new Vector<>();
+
+    constraints.stream()
+        .filter(c -> c.isInput() && c.isSatisfied())
+        .forEach(sources::append);
+
+    return makePlan(sources);
+  }
+
+  @Override
+  protected void addConstraintsConsumingTo(final Variable v,
+      final Vector<AbstractConstraint> coll) {
+    AbstractConstraint determiningC = v.getDeterminedBy();
+
+    v.getConstraints().stream()
+        .filter(c -> c != determiningC && c.isSatisfied())
+        .forEach(coll::append);
+  }
+
+  @Override
+  protected Vector<AbstractConstraint> removePropagateFrom(final Variable out) {
+    Vector<AbstractConstraint> unsatisfied = new Vector<>();
+
+    out.setDeterminedBy(null);
+    out.setWalkStrength(Strength.absoluteWeakest());
+    out.setStay(true);
+
+    Vector<Variable> todo = Vector.with(out);
+
+    while (!todo.isEmpty()) {
+      Variable v = todo.removeFirst();
+
+      v.getConstraints().stream()
+          .filter(c -> !c.isSatisfied())
+          .forEach(unsatisfied::append);
+
+      AbstractConstraint determiningC = v.getDeterminedBy();
+      v.getConstraints().stream()
+          .filter(c -> c != determiningC && c.isSatisfied())
+          .forEach(c -> {
+            c.recalculate();
+            todo.append(c.getOutput());
+          });
+    }
+
+    unsatisfied.sort((c1, c2) ->
+      c1.getStrength().stronger(c2.getStrength()) ? -1 : 1);
+    return unsatisfied;
+  }
+}
@@ -13,12 +13,44 @@
 // limitations under the License.
 package havlak;
 
+import som.HashedSet;
+import som.IdentityDictionary;
+import som.IdentityHashDictionary;
+import som.OpenAddressingIdentityDictionary;
+import som.Set;
+
 public final class LoopTesterApp {
 
+  /**
+   * The loop finder used by the benchmark. Only {@code CANONICAL} is part
+   * of the cross-language suite, the others are Java-only variants that run
+   * in separate finder classes.
+   */
+  public enum Finder {
+    /** {@link HavlakLoopFinder}. */
+    CANONICAL,
+    /** Stores DFS numbers in int-specialized collections. */
+    INT_COLLECTIONS,
+    /** Maps blocks to DFS numbers with an open-addressing dictionary. */
+    OPEN_ADDRESSING,
+    /** Maps blocks to DFS numbers with a dictionary on identity hashes. */
+    IDENTITY_HASH,
+    /** Uses hash-based sets for the non-back predecessors. */
+    HASHED_SETS,
+    /** Walks the collections of the finder with {@code Stream} pipelines. */
+    STREAMS
+  }
+
   private final ControlFlowGraph   cfg;
   private final LoopStructureGraph lsg;
+  private final Finder             finder;
 
   public LoopTesterApp() {
+    this(Finder.CANONICAL);
+  }
+
+  public LoopTesterApp(final Finder finder) {
+    this.finder = finder;
     cfg = new ControlFlowGraph();
     lsg = new LoopStructureGraph();
     cfg.createNode(0);
@@ -110,8 +142,29 @@ public final class LoopTesterApp {
   }
 
   private void findLoops(final LoopStructureGraph loopStructure) {
-    HavlakLoopFinder finder = new HavlakLoopFinder(cfg, loopStructure);
-    finder.findLoops();
+    switch (finder) {
+      case INT_COLLECTIONS:
+        new IntHavlakLoopFinder(cfg, loopStructure, new IdentityDictionary<>()).findLoops();
+        break;
+      case OPEN_ADDRESSING:
+        new VariantHavlakLoopFinder(cfg, loopStructure,
+            new OpenAddressingIdentityDictionary<>(), Set::new).findLoops();
+        break;
+      case IDENTITY_HASH:
+        new VariantHavlakLoopFinder(cfg, loopStructure,
+            new IdentityHashDictionary<>(), Set::new).findLoops();
+        break;
+      case HASHED_SETS:
+        new VariantHavlakLoopFinder(cfg, loopStructure,
+            new IdentityDictionary<>(), HashedSet::new).findLoops();
+        break;
+      case STREAMS:
+        new StreamHavlakLoopFinder(cfg, loopStructure).findLoops();
+        break;
+      default:
+        new HavlakLoopFinder(cfg, loopStructure).findLoops();
+        break;
+    }
   }
 
   private void constructSimpleCFG() {
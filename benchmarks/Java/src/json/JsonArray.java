@@ -89,6 +89,10 @@ public final class JsonArray extends JsonValue {
     return values.at(index);
   }
 
+  Vector<JsonValue> getValues() {
+    return values;
+  }
+
   @Override
   public boolean isArray() {
     return true;
@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package json;
+
+/**
+ * A parser that works on a {@code char[]} with an int cursor. Unlike
+ * {@link JsonPureStringParser}, it does not create a string per character,
+ * captures strings and numbers by copying ranges of the input, and
+ * supports {@code \}{@code uXXXX} escapes.
+ *
+ * <p>It builds the same {@link JsonValue} tree as {@link JsonPureStringParser}.
+ * Optionally, numbers are decoded eagerly, so that the tree holds their
+ * values instead of their strings. Their {@code toString()} then gives the
+ * canonical form of the value, which can differ from the input.
+ */
+public final class JsonCharArrayParser {
+
+  private static final int END_OF_TEXT = -1;
+
+  private final char[]  input;
+  private final int     end;
+  private final boolean eagerNumbers;
+  private int index;
+  private int line;
+  private int lineOffset;
+  private int current;
+  private StringBuilder captureBuffer;
+
+  public JsonCharArrayParser(final String string) {
+    this(string.toCharArray());
+  }
+
+  public JsonCharArrayParser(final char[] input) {
+    this(input, 0, input.length, false);
+  }
+
+  /**
+   * Parses the characters {@code input[offset]} to {@code input[offset + length - 1]}.
+   *
+   * @param eagerNumbers decode numbers while parsing, instead of keeping
+   *        their strings
+   */
+  public JsonCharArrayParser(final char[] input, final int offset, final int length,
+      final boolean eagerNumbers) {
+    this.input = input;
+    this.end   = offset + length;
+    this.eagerNumbers = eagerNumbers;
+    index      = offset - 1;
+    line       = 1;
+    lineOffset = offset;
+  }
+
+  public JsonValue parse() {
+    read();
+    skipWhiteSpace();
+    JsonValue result = readValue();
+    skipWhiteSpace();
+    if (!isEndOfText()) {
+      throw error("Unexpected character");
+    }
+    return result;
+  }
+
+  private JsonValue readValue() {
+    switch (current) {
+      case 'n':
+        return readNull();
+      case 't':
+        return readTrue();
+      case 'f':
+        return readFalse();
+      case '"':
+        return readString();
+      case '[':
+        return readArray();
+      case '{':
+        return readObject();
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        return readNumber();
+      default:
+        throw expected("value");
+    }
+  }
+
+  private JsonArray readArray() {
+    read();
+    JsonArray array = new JsonArray();
+    skipWhiteSpace();
+    if (readChar(']')) {
+      return array;
+    }
+    do {
+      skipWhiteSpace();
+      array.add(readValue());
+      skipWhiteSpace();
+    } while (readChar(','));
+    if (!readChar(']')) {
+      throw expected("',' or ']'");
+    }
+    return array;
+  }
+
+  private JsonObject readObject() {
+    read();
+    JsonObject object = new JsonObject();
+    skipWhiteSpace();
+    if (readChar('}')) {
+      return object;
+    }
+    do {
+      skipWhiteSpace();
+      String name = readName();
+      skipWhiteSpace();
+      if (!readChar(':')) {
+        throw expected("':'");
+      }
+      skipWhiteSpace();
+      object.add(name, readValue());
+      skipWhiteSpace();
+    } while (readChar(','));
+
+    if (!readChar('}')) {
+      throw expected("',' or '}'");
+    }
+    return object;
+  }
+
+  private String readName() {
+    if (current != '"') {
+      throw expected("name");
+    }
+    return readStringInternal();
+  }
+
+  private JsonValue readNull() {
+    read();
+    readRequiredChar('u');
+    readRequiredChar('l');
+    readRequiredChar('l');
+    return JsonLiteral.NULL;
+  }
+
+  private JsonValue readTrue() {
+    read();
+    readRequiredChar('r');
+    readRequiredChar('u');
+    readRequiredChar('e');
+    return JsonLiteral.TRUE;
+  }
+
+  private JsonValue readFalse() {
+    read();
+    readRequiredChar('a');
+    readRequiredChar('l');
+    readRequiredChar('s');
+    readRequiredChar('e');
+    return JsonLiteral.FALSE;
+  }
+
+  private void readRequiredChar(final char ch) {
+    if (!readChar(ch)) {
+      throw expected("'" + ch + "'");
+    }
+  }
+
+  private JsonValue readString() {
+    return new JsonString(readStringInternal());
+  }
+
+  /**
+   * Scans directly over the input for the closing quote. Only strings with
+   * escape sequences are assembled in the capture buffer.
+   */
+  private String readStringInternal() {
+    int start = index + 1;
+    int i = start;
+    while (i < end) {
+      char c = input[i];
+      if (c == '"') {
+        index = i;
+        read();
+        return new String(input, start, i - start);
+      }
+      if (c == '\\' || c < 0x20) {
+        break;
+      }
+      i++;
+    }
+
+    // slow path: escapes, control characters, or a missing closing quote
+    if (captureBuffer == null) {
+      captureBuffer = new StringBuilder();
+    }
+    captureBuffer.setLength(0);
+    captureBuffer.append(input, start, i - start);
+    index = i - 1;
+    read();
+    while (current != '"') {
+      if (current == '\\') {
+        readEscape();
+      } else if (current < 0x20) {
+        throw expected("valid string character");
+      } else {
+        captureBuffer.append((char) current);
+        read();
+      }
+    }
+    read();
+    return captureBuffer.toString();
+  }
+
+  private void readEscape() {
+    read();
+    switch (current) {
+      case '"':
+      case '/':
+      case '\\':
+        captureBuffer.append((char) current);
+        break;
+      case 'b':
+        captureBuffer.append('\b');
+        break;
+      case 'f':
+        captureBuffer.append('\f');
+        break;
+      case 'n':
+        captureBuffer.append('\n');
+        break;
+      case 'r':
+        captureBuffer.append('\r');
+        break;
+      case 't':
+        captureBuffer.append('\t');
+        break;
+      case 'u':
+        char[] hexChars = new char[4];
+        for (int i = 0; i < 4; i++) {
+          read();
+          if (!isHexDigit()) {
+            throw expected("hexadecimal digit");
+          }
+          hexChars[i] = (char) current;
+        }
+        captureBuffer.append((char) Integer.parseInt(new String(hexChars), 16));
+        break;
+      default:
+        throw expected("valid escape sequence");
+    }
+    read();
+  }
+
+  private JsonValue readNumber() {
+    int start = index;
+    readChar('-');
+    int firstDigit = current;
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+    if (firstDigit != '0') {
+      // Checkstyle: stop
+      while (readDigit()) { }
+      // Checkstyle: resume
+    }
+    readFraction();
+    readExponent();
+    if (eagerNumbers) {
+      return JsonNumber.decode(input, start, index);
+    }
+    return new JsonNumber(new String(input, start, index - start));
+  }
+
+  private boolean readFraction() {
+    if (!readChar('.')) {
+      return false;
+    }
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+    // Checkstyle: stop
+    while (readDigit()) { }
+    // Checkstyle: resume
+    return true;
+  }
+
+  private boolean readExponent() {
+    if (!readChar('e') && !readChar('E')) {
+      return false;
+    }
+    if (!readChar('+')) {
+      readChar('-');
+    }
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+
+    // Checkstyle: stop
+    while (readDigit()) { }
+    // Checkstyle: resume
+    return true;
+  }
+
+  private boolean readChar(final char ch) {
+    if (current != ch) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  private boolean readDigit() {
+    if (!isDigit()) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  private void skipWhiteSpace() {
+    while (isWhiteSpace()) {
+      read();
+    }
+  }
+
+  private void read() {
+    if (current == '\n') {
+      line++;
+      lineOffset = index + 1;
+    }
+    index++;
+    if (index < end) {
+      current = input[index];
+    } else {
+      index   = end;
+      current = END_OF_TEXT;
+    }
+  }
+
+  private ParseException expected(final String expected) {
+    if (isEndOfText()) {
+      return error("Unexpected end of input");
+    }
+    return error("Expected " + expected);
+  }
+
+  private ParseException error(final String message) {
+    return new ParseException(message, index, line, index - lineOffset);
+  }
+
+  private boolean isWhiteSpace() {
+    return current == ' ' || current == '\t' || current == '\n' || current == '\r';
+  }
+
+  private boolean isDigit() {
+    return current >= '0' && current <= '9';
+  }
+
+  private boolean isHexDigit() {
+    return current >= '0' && current <= '9' ||
+        current >= 'a' && current <= 'f' ||
+        current >= 'A' && current <= 'F';
+  }
+
+  private boolean isEndOfText() {
+    return current == END_OF_TEXT;
+  }
+}
@@ -21,11 +21,33 @@
  ******************************************************************************/
 package json;
 
-
+/**
+ * A JSON number. It is created either from the string as it appears in the
+ * input, which is decoded on the first access to its value, or eagerly from
+ * the decoded value, without keeping a string.
+ *
+ * <p>The decoded value is cached. Integers with up to 18 digits are decoded
+ * without {@link Long#parseLong(String)} or {@link Double#parseDouble(String)}.
+ */
 final class JsonNumber extends JsonValue {
 
+  private static final byte UNDECODED = 0;
+  private static final byte INTEGRAL  = 1;
+  private static final byte FLOATING  = 2;
+
+  /** The integer {@code -0}, which is {@code 0} as long and -0.0 as double. */
+  private static final byte NEGATIVE_ZERO = 3;
+
+  /** The largest number of digits that cannot overflow a {@code long}. */
+  private static final int MAX_FAST_DIGITS = 18;
+
+  /** The number as it appears in the input, or null if decoded eagerly. */
   private final String string;
 
+  /** The value as {@code long}, or the bits of the {@code double} value. */
+  private long bits;
+  private byte kind;
+
   JsonNumber(final String string) {
     this.string = string;
     if (string == null) {
@@ -33,13 +55,128 @@ final class JsonNumber extends JsonValue {
     }
   }
 
+  private JsonNumber(final long bits, final byte kind) {
+    this.string = null;
+    this.bits   = bits;
+    this.kind   = kind;
+  }
+
+  /**
+   * Decodes the number in {@code chars[start]} to {@code chars[end - 1]},
+   * which needs to be valid JSON, without keeping a string.
+   */
+  static JsonNumber decode(final char[] chars, final int start, final int end) {
+    boolean negative = chars[start] == '-';
+    int first = negative ? start + 1 : start;
+    if (end - first <= MAX_FAST_DIGITS) {
+      long value = 0;
+      int i = first;
+      while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+        value = value * 10 + (chars[i] - '0');
+        i++;
+      }
+      if (i == end) {
+        if (negative && value == 0) {
+          return new JsonNumber(0, NEGATIVE_ZERO);
+        }
+        return new JsonNumber(negative ? -value : value, INTEGRAL);
+      }
+    }
+    JsonNumber number = new JsonNumber(0, UNDECODED);
+    number.decodeGeneral(new String(chars, start, end - start));
+    return number;
+  }
+
   @Override
   public String toString() {
-    return string;
+    if (string != null) {
+      return string;
+    }
+    if (kind == INTEGRAL) {
+      return Long.toString(bits);
+    }
+    if (kind == NEGATIVE_ZERO) {
+      return "-0";
+    }
+    return Double.toString(Double.longBitsToDouble(bits));
   }
 
   @Override
   public boolean isNumber() {
     return true;
   }
+
+  @Override
+  public int asInt() {
+    long value = asLong();
+    if ((int) value != value) {
+      throw new NumberFormatException("Out of int range: " + toString());
+    }
+    return (int) value;
+  }
+
+  @Override
+  public long asLong() {
+    decode();
+    if (kind == FLOATING) {
+      throw new NumberFormatException("Not an integer in long range: " + toString());
+    }
+    return bits;
+  }
+
+  @Override
+  public double asDouble() {
+    decode();
+    if (kind == INTEGRAL) {
+      return bits;
+    }
+    if (kind == NEGATIVE_ZERO) {
+      return -0.0;
+    }
+    return Double.longBitsToDouble(bits);
+  }
+
+  private void decode() {
+    if (kind != UNDECODED) {
+      return;
+    }
+    if (!decodeSmallInteger()) {
+      decodeGeneral(string);
+    }
+  }
+
+  private void decodeGeneral(final String number) {
+    if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+      try {
+        bits = Long.parseLong(number);
+        kind = bits == 0 && number.charAt(0) == '-' ? NEGATIVE_ZERO : INTEGRAL;
+        return;
+      } catch (NumberFormatException e) {
+        // too large for a long, represent it as double
+      }
+    }
+    bits = Double.doubleToRawLongBits(Double.parseDouble(number));
+    kind = FLOATING;
+  }
+
+  private boolean decodeSmallInteger() {
+    int len = string.length();
+    boolean negative = string.charAt(0) == '-';
+    int first = negative ? 1 : 0;
+    if (len - first > MAX_FAST_DIGITS) {
+      return false;
+    }
+
+    long value = 0;
+    for (int i = first; i < len; i++) {
+      char c = string.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+      value = value * 10 + (c - '0');
+    }
+    bits = negative ? -value : value;
+    kind = negative && value == 0 ? NEGATIVE_ZERO : INTEGRAL;
+    return true;
+  }
 }
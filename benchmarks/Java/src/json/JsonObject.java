@@ -122,6 +122,14 @@ public final class JsonObject extends JsonValue {
     return names.isEmpty();
   }
 
+  Vector<String> getNames() {
+    return names;
+  }
+
+  Vector<JsonValue> getValues() {
+    return values;
+  }
+
   @Override
   public boolean isObject() {
     return true;
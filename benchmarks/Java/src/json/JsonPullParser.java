@@ -0,0 +1,505 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A pull parser, which reports a document as a sequence of {@link JsonToken}s
+ * instead of building a {@link JsonValue} tree.
+ *
+ * <p>It reads incrementally into a fixed-size buffer, so the memory it needs
+ * only depends on the nesting depth and on the longest string or number, but
+ * not on the size of the document. The text of names, strings, and numbers
+ * is kept in a reused buffer, and only turned into a {@code String} when
+ * {@link #getText()} is called. Integral numbers are decoded while scanning,
+ * so that {@link #getLong()} does not need to allocate.
+ *
+ * <p>A typical loop looks like:
+ * <pre>
+ * JsonToken t;
+ * while ((t = parser.next()) != null) {
+ *   if (t == JsonToken.VALUE_NUMBER) { sum += parser.getLong(); }
+ * }
+ * </pre>
+ */
+public final class JsonPullParser {
+
+  private static final int END_OF_TEXT = -1;
+
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  /** What is expected next, to validate the structure of the document. */
+  private enum State {
+    VALUE,
+    FIRST_VALUE_OR_END,
+    FIRST_NAME_OR_END,
+    NAME,
+    COMMA_OR_END,
+    DONE
+  }
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int bufferLength;
+  private int bufferIndex;
+  private int current;
+
+  private int offset;
+  private int line;
+  private int lineOffset;
+
+  /** The containers currently open, true for objects, false for arrays. */
+  private boolean[] stack;
+  private int       depth;
+  private State     state;
+
+  private char[]  text;
+  private int     textLength;
+  private String  textString;
+  private boolean integral;
+  private long    longValue;
+
+  public JsonPullParser(final Reader reader) {
+    this(reader, DEFAULT_BUFFER_SIZE);
+  }
+
+  public JsonPullParser(final Reader reader, final int bufferSize) {
+    this.reader = reader;
+    buffer = new char[bufferSize];
+    text   = new char[64];
+    stack  = new boolean[16];
+    state  = State.VALUE;
+    line   = 1;
+    offset = -1;
+    read();
+  }
+
+  /**
+   * Decodes the bytes of the channel as UTF-8.
+   */
+  public JsonPullParser(final ReadableByteChannel channel) {
+    this(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), DEFAULT_BUFFER_SIZE),
+        DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Reads the next token.
+   *
+   * @return the next token, or {@code null} at the end of the document
+   * @throws ParseException if the input is not valid JSON
+   */
+  public JsonToken next() {
+    skipWhiteSpace();
+    switch (state) {
+      case VALUE:
+        return readValue();
+      case FIRST_VALUE_OR_END:
+        if (readChar(']')) {
+          return endContainer(JsonToken.END_ARRAY);
+        }
+        return readValue();
+      case FIRST_NAME_OR_END:
+        if (readChar('}')) {
+          return endContainer(JsonToken.END_OBJECT);
+        }
+        return readName();
+      case NAME:
+        return readName();
+      case COMMA_OR_END:
+        return readCommaOrEnd();
+      case DONE:
+        if (!isEndOfText()) {
+          throw error("Unexpected character");
+        }
+        return null;
+      default:
+        throw new RuntimeException("Unknown state: " + state);
+    }
+  }
+
+  /**
+   * @return the current name, string, or number as it appears in the input,
+   *         with escape sequences decoded
+   */
+  public String getText() {
+    if (textString == null) {
+      textString = new String(text, 0, textLength);
+    }
+    return textString;
+  }
+
+  /**
+   * @return the value of the current number, which needs to be integral
+   */
+  public long getLong() {
+    if (!integral) {
+      throw new NumberFormatException("Not an integral number: " + getText());
+    }
+    return longValue;
+  }
+
+  /**
+   * @return the value of the current number
+   */
+  public double getDouble() {
+    if (integral) {
+      return longValue;
+    }
+    return Double.parseDouble(getText());
+  }
+
+  /**
+   * @return whether the current number has neither a fraction nor an
+   *         exponent, and fits into a {@code long}
+   */
+  public boolean isIntegral() {
+    return integral;
+  }
+
+  /**
+   * @return the number of containers that are currently open
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  private JsonToken readCommaOrEnd() {
+    boolean inObject = stack[depth - 1];
+    if (readChar(',')) {
+      skipWhiteSpace();
+      if (inObject) {
+        return readName();
+      }
+      return readValue();
+    }
+    if (inObject) {
+      if (!readChar('}')) {
+        throw expected("',' or '}'");
+      }
+      return endContainer(JsonToken.END_OBJECT);
+    }
+    if (!readChar(']')) {
+      throw expected("',' or ']'");
+    }
+    return endContainer(JsonToken.END_ARRAY);
+  }
+
+  private JsonToken endContainer(final JsonToken token) {
+    depth--;
+    afterValue();
+    return token;
+  }
+
+  private void afterValue() {
+    state = depth == 0 ? State.DONE : State.COMMA_OR_END;
+  }
+
+  private JsonToken readName() {
+    if (current != '"') {
+      throw expected("name");
+    }
+    readStringInternal();
+    skipWhiteSpace();
+    if (!readChar(':')) {
+      throw expected("':'");
+    }
+    state = State.VALUE;
+    return JsonToken.FIELD_NAME;
+  }
+
+  private JsonToken readValue() {
+    switch (current) {
+      case 'n':
+        readLiteral("null");
+        afterValue();
+        return JsonToken.VALUE_NULL;
+      case 't':
+        readLiteral("true");
+        afterValue();
+        return JsonToken.VALUE_TRUE;
+      case 'f':
+        readLiteral("false");
+        afterValue();
+        return JsonToken.VALUE_FALSE;
+      case '"':
+        readStringInternal();
+        afterValue();
+        return JsonToken.VALUE_STRING;
+      case '[':
+        read();
+        push(false);
+        state = State.FIRST_VALUE_OR_END;
+        return JsonToken.START_ARRAY;
+      case '{':
+        read();
+        push(true);
+        state = State.FIRST_NAME_OR_END;
+        return JsonToken.START_OBJECT;
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        readNumber();
+        afterValue();
+        return JsonToken.VALUE_NUMBER;
+      default:
+        throw expected("value");
+    }
+  }
+
+  private void push(final boolean isObject) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+    }
+    stack[depth] = isObject;
+    depth++;
+  }
+
+  private void readLiteral(final String literal) {
+    read();
+    for (int i = 1; i < literal.length(); i++) {
+      char ch = literal.charAt(i);
+      if (!readChar(ch)) {
+        throw expected("'" + ch + "'");
+      }
+    }
+  }
+
+  private void readStringInternal() {
+    startText();
+    read();
+    while (current != '"') {
+      if (current == '\\') {
+        readEscape();
+      } else if (current < 0x20) {
+        throw expected("valid string character");
+      } else {
+        appendText((char) current);
+        read();
+      }
+    }
+    read();
+  }
+
+  private void readEscape() {
+    read();
+    switch (current) {
+      case '"':
+      case '/':
+      case '\\':
+        appendText((char) current);
+        break;
+      case 'b':
+        appendText('\b');
+        break;
+      case 'f':
+        appendText('\f');
+        break;
+      case 'n':
+        appendText('\n');
+        break;
+      case 'r':
+        appendText('\r');
+        break;
+      case 't':
+        appendText('\t');
+        break;
+      case 'u':
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          read();
+          int digit = Character.digit(current, 16);
+          if (current == END_OF_TEXT || digit < 0) {
+            throw expected("hexadecimal digit");
+          }
+          value = value * 16 + digit;
+        }
+        appendText((char) value);
+        break;
+      default:
+        throw expected("valid escape sequence");
+    }
+    read();
+  }
+
+  private void readNumber() {
+    startText();
+    boolean negative = current == '-';
+    if (negative) {
+      appendAndRead();
+    }
+
+    int firstDigit = current;
+    if (!isDigit()) {
+      throw expected("digit");
+    }
+    // accumulate negatively, so that Long.MIN_VALUE can be represented
+    long value = 0;
+    boolean fits = true;
+    do {
+      int digit = current - '0';
+      if (value < (Long.MIN_VALUE + digit) / 10) {
+        fits = false;
+      } else {
+        value = value * 10 - digit;
+      }
+      appendAndRead();
+    } while (firstDigit != '0' && isDigit());
+
+    boolean fraction = readFraction();
+    boolean exponent = readExponent();
+
+    integral = fits && !fraction && !exponent && (negative || value != Long.MIN_VALUE);
+    longValue = negative ? value : -value;
+  }
+
+  private boolean readFraction() {
+    if (current != '.') {
+      return false;
+    }
+    appendAndRead();
+    readDigits();
+    return true;
+  }
+
+  private boolean readExponent() {
+    if (current != 'e' && current != 'E') {
+      return false;
+    }
+    appendAndRead();
+    if (current == '+' || current == '-') {
+      appendAndRead();
+    }
+    readDigits();
+    return true;
+  }
+
+  private void readDigits() {
+    if (!isDigit()) {
+      throw expected("digit");
+    }
+    do {
+      appendAndRead();
+    } while (isDigit());
+  }
+
+  private void appendAndRead() {
+    appendText((char) current);
+    read();
+  }
+
+  private void startText() {
+    textLength = 0;
+    textString = null;
+    integral   = false;
+  }
+
+  private void appendText(final char c) {
+    if (textLength == text.length) {
+      text = Arrays.copyOf(text, textLength * 2);
+    }
+    text[textLength] = c;
+    textLength++;
+  }
+
+  private boolean readChar(final char ch) {
+    if (current != ch) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  private void skipWhiteSpace() {
+    while (current == ' ' || current == '\t' || current == '\n' || current == '\r') {
+      read();
+    }
+  }
+
+  private void read() {
+    if (current == '\n') {
+      line++;
+      lineOffset = offset + 1;
+    }
+    if (bufferIndex == bufferLength && !fill()) {
+      current = END_OF_TEXT;
+      return;
+    }
+    offset++;
+    current = buffer[bufferIndex];
+    bufferIndex++;
+  }
+
+  private boolean fill() {
+    if (current == END_OF_TEXT && offset >= 0) {
+      return false;
+    }
+    try {
+      int n;
+      do {
+        n = reader.read(buffer, 0, buffer.length);
+      } while (n == 0);
+      if (n < 0) {
+        offset++;
+        return false;
+      }
+      bufferLength = n;
+      bufferIndex  = 0;
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ParseException expected(final String expected) {
+    if (isEndOfText()) {
+      return error("Unexpected end of input");
+    }
+    return error("Expected " + expected);
+  }
+
+  private ParseException error(final String message) {
+    return new ParseException(message, offset, line, offset - lineOffset);
+  }
+
+  private boolean isDigit() {
+    return current >= '0' && current <= '9';
+  }
+
+  private boolean isEndOfText() {
+    return current == END_OF_TEXT;
+  }
+}
@@ -34,4 +34,9 @@ final class JsonString extends JsonValue {
   public boolean isString() {
     return true;
   }
+
+  @Override
+  public String asString() {
+    return string;
+  }
 }
@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A parser that works directly on the UTF-8 bytes of a {@link ByteBuffer},
+ * for instance a {@link MappedByteBuffer} of a file, without decoding the
+ * whole input to a {@code String} first.
+ *
+ * <p>Structural characters, literals, and numbers are all ASCII, so the
+ * parser only needs to look at single bytes. Multi-byte UTF-8 sequences
+ * can only appear in strings, where the parser skips over them. String
+ * values are decoded lazily, when they are accessed with
+ * {@link JsonValue#asString()}. Member names are decoded right away,
+ * because {@link JsonObject} needs them as {@code String}s.
+ *
+ * <p>It builds the same {@link JsonValue} tree as {@link JsonPureStringParser}.
+ * Error columns are counted in bytes.
+ */
+public final class JsonUtf8Parser {
+
+  private static final int END_OF_TEXT = -1;
+
+  private final ByteBuffer input;
+  private final int        end;
+  private int index;
+  private int line;
+  private int lineOffset;
+  private int current;
+
+  /**
+   * Parses the bytes between the position and the limit of the buffer. The
+   * buffer's position is not changed, and it must not be modified while
+   * parsed strings are not yet accessed.
+   */
+  public JsonUtf8Parser(final ByteBuffer input) {
+    this.input = input;
+    this.end   = input.limit();
+    index      = input.position() - 1;
+    line       = 1;
+    lineOffset = input.position();
+  }
+
+  /**
+   * Maps the file read-only into memory. The mapping stays valid after the
+   * channel is closed, until the buffer is garbage collected.
+   */
+  public static MappedByteBuffer map(final Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  public JsonValue parse() {
+    read();
+    skipWhiteSpace();
+    JsonValue result = readValue();
+    skipWhiteSpace();
+    if (!isEndOfText()) {
+      throw error("Unexpected character");
+    }
+    return result;
+  }
+
+  private JsonValue readValue() {
+    switch (current) {
+      case 'n':
+        return readNull();
+      case 't':
+        return readTrue();
+      case 'f':
+        return readFalse();
+      case '"':
+        return readString();
+      case '[':
+        return readArray();
+      case '{':
+        return readObject();
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        return readNumber();
+      default:
+        throw expected("value");
+    }
+  }
+
+  private JsonArray readArray() {
+    read();
+    JsonArray array = new JsonArray();
+    skipWhiteSpace();
+    if (readChar(']')) {
+      return array;
+    }
+    do {
+      skipWhiteSpace();
+      array.add(readValue());
+      skipWhiteSpace();
+    } while (readChar(','));
+    if (!readChar(']')) {
+      throw expected("',' or ']'");
+    }
+    return array;
+  }
+
+  private JsonObject readObject() {
+    read();
+    JsonObject object = new JsonObject();
+    skipWhiteSpace();
+    if (readChar('}')) {
+      return object;
+    }
+    do {
+      skipWhiteSpace();
+      String name = readName();
+      skipWhiteSpace();
+      if (!readChar(':')) {
+        throw expected("':'");
+      }
+      skipWhiteSpace();
+      object.add(name, readValue());
+      skipWhiteSpace();
+    } while (readChar(','));
+
+    if (!readChar('}')) {
+      throw expected("',' or '}'");
+    }
+    return object;
+  }
+
+  private String readName() {
+    if (current != '"') {
+      throw expected("name");
+    }
+    int start = index + 1;
+    boolean hasEscapes = skipString();
+    return LazyJsonString.decode(input, start, index - 1, hasEscapes);
+  }
+
+  private JsonValue readNull() {
+    read();
+    readRequiredChar('u');
+    readRequiredChar('l');
+    readRequiredChar('l');
+    return JsonLiteral.NULL;
+  }
+
+  private JsonValue readTrue() {
+    read();
+    readRequiredChar('r');
+    readRequiredChar('u');
+    readRequiredChar('e');
+    return JsonLiteral.TRUE;
+  }
+
+  private JsonValue readFalse() {
+    read();
+    readRequiredChar('a');
+    readRequiredChar('l');
+    readRequiredChar('s');
+    readRequiredChar('e');
+    return JsonLiteral.FALSE;
+  }
+
+  private void readRequiredChar(final char ch) {
+    if (!readChar(ch)) {
+      throw expected("'" + ch + "'");
+    }
+  }
+
+  private JsonValue readString() {
+    int start = index + 1;
+    boolean hasEscapes = skipString();
+    return new LazyJsonString(input, start, index - 1, hasEscapes);
+  }
+
+  /**
+   * Validates the string starting at the current quote, and moves behind its
+   * closing quote. Bytes of multi-byte UTF-8 sequences are all negative, so
+   * they are neither quotes, backslashes, nor control characters.
+   *
+   * @return whether the string contains escape sequences
+   */
+  private boolean skipString() {
+    boolean hasEscapes = false;
+    int i = index + 1;
+    while (true) {
+      if (i >= end) {
+        index = end - 1;
+        read();
+        throw expected("'\"'");
+      }
+      byte b = input.get(i);
+      if (b == '"') {
+        break;
+      }
+      if (b == '\\') {
+        hasEscapes = true;
+        index = i;
+        readEscape();
+        i = index;
+      } else if (b >= 0 && b < 0x20) {
+        index = i - 1;
+        read();
+        throw expected("valid string character");
+      } else {
+        i++;
+      }
+    }
+    index = i;
+    read();
+    return hasEscapes;
+  }
+
+  /** Validates the escape sequence at the current index. */
+  private void readEscape() {
+    current = '\\';
+    read();
+    switch (current) {
+      case '"':
+      case '/':
+      case '\\':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        break;
+      case 'u':
+        for (int i = 0; i < 4; i++) {
+          read();
+          if (!isHexDigit()) {
+            throw expected("hexadecimal digit");
+          }
+        }
+        break;
+      default:
+        throw expected("valid escape sequence");
+    }
+    index++;
+  }
+
+  private JsonValue readNumber() {
+    int start = index;
+    readChar('-');
+    int firstDigit = current;
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+    if (firstDigit != '0') {
+      // Checkstyle: stop
+      while (readDigit()) { }
+      // Checkstyle: resume
+    }
+    readFraction();
+    readExponent();
+    return new JsonNumber(ascii(start, index));
+  }
+
+  private String ascii(final int start, final int stop) {
+    char[] chars = new char[stop - start];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) input.get(start + i);
+    }
+    return new String(chars);
+  }
+
+  private boolean readFraction() {
+    if (!readChar('.')) {
+      return false;
+    }
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+    // Checkstyle: stop
+    while (readDigit()) { }
+    // Checkstyle: resume
+    return true;
+  }
+
+  private boolean readExponent() {
+    if (!readChar('e') && !readChar('E')) {
+      return false;
+    }
+    if (!readChar('+')) {
+      readChar('-');
+    }
+    if (!readDigit()) {
+      throw expected("digit");
+    }
+
+    // Checkstyle: stop
+    while (readDigit()) { }
+    // Checkstyle: resume
+    return true;
+  }
+
+  private boolean readChar(final char ch) {
+    if (current != ch) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  private boolean readDigit() {
+    if (!isDigit()) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  private void skipWhiteSpace() {
+    while (isWhiteSpace()) {
+      read();
+    }
+  }
+
+  private void read() {
+    if (current == '\n') {
+      line++;
+      lineOffset = index + 1;
+    }
+    index++;
+    if (index < end) {
+      current = input.get(index) & 0xff;
+    } else {
+      index   = end;
+      current = END_OF_TEXT;
+    }
+  }
+
+  private ParseException expected(final String expected) {
+    if (isEndOfText()) {
+      return error("Unexpected end of input");
+    }
+    return error("Expected " + expected);
+  }
+
+  private ParseException error(final String message) {
+    return new ParseException(message, index, line, index - lineOffset);
+  }
+
+  private boolean isWhiteSpace() {
+    return current == ' ' || current == '\t' || current == '\n' || current == '\r';
+  }
+
+  private boolean isDigit() {
+    return current >= '0' && current <= '9';
+  }
+
+  private boolean isHexDigit() {
+    return current >= '0' && current <= '9' ||
+        current >= 'a' && current <= 'f' ||
+        current >= 'A' && current <= 'F';
+  }
+
+  private boolean isEndOfText() {
+    return current == END_OF_TEXT;
+  }
+}
@@ -157,4 +157,56 @@ public abstract class JsonValue {
   public JsonArray asArray() {
     throw new UnsupportedOperationException("Not an array: " + toString());
   }
+
+  /**
+   * Returns this JSON value as string, assuming that this value represents a JSON string. If this
+   * is not the case, an exception is thrown.
+   *
+   * @return the string represented by this value
+   * @throws UnsupportedOperationException
+   *           if this value is not a JSON string
+   */
+  public String asString() {
+    throw new UnsupportedOperationException("Not a string: " + toString());
+  }
+
+  /**
+   * Returns this JSON value as an <code>int</code> value, assuming that this value represents a
+   * JSON number that is an integer and fits into an <code>int</code>.
+   *
+   * @return this value as <code>int</code>
+   * @throws UnsupportedOperationException
+   *           if this value is not a JSON number
+   * @throws NumberFormatException
+   *           if the number is not an integer, or does not fit into an <code>int</code>
+   */
+  public int asInt() {
+    throw new UnsupportedOperationException("Not a number: " + toString());
+  }
+
+  /**
+   * Returns this JSON value as a <code>long</code> value, assuming that this value represents a
+   * JSON number that is an integer and fits into a <code>long</code>.
+   *
+   * @return this value as <code>long</code>
+   * @throws UnsupportedOperationException
+   *           if this value is not a JSON number
+   * @throws NumberFormatException
+   *           if the number is not an integer, or does not fit into a <code>long</code>
+   */
+  public long asLong() {
+    throw new UnsupportedOperationException("Not a number: " + toString());
+  }
+
+  /**
+   * Returns this JSON value as a <code>double</code> value, assuming that this value represents a
+   * JSON number.
+   *
+   * @return this value as <code>double</code>
+   * @throws UnsupportedOperationException
+   *           if this value is not a JSON number
+   */
+  public double asDouble() {
+    throw new UnsupportedOperationException("Not a number: " + toString());
+  }
 }
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+import som.Vector;
+
+/**
+ * Writes {@link JsonValue} trees as minified JSON, either to an
+ * {@link Appendable}, or UTF-8 encoded to a {@link WritableByteChannel}.
+ *
+ * <p>The output is collected in a buffer, which is reused for all values
+ * written with the same writer. It is passed on when it is full, and on
+ * {@link #flush()}. Strings without characters that need escaping are
+ * copied to the buffer as a whole.
+ *
+ * <p>Unpaired surrogates, which the parsers accept as escape sequences,
+ * are written as escapes again, so that the output can always be encoded
+ * as UTF-8.
+ */
+public final class JsonWriter {
+
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final char[]     buffer;
+  private final CharBuffer bufferView;
+  private int              length;
+
+  private final Appendable out;
+
+  private final WritableByteChannel channel;
+  private final CharsetEncoder      encoder;
+  private final ByteBuffer          bytes;
+
+  public JsonWriter(final Appendable out) {
+    this(out, DEFAULT_BUFFER_SIZE);
+  }
+
+  public JsonWriter(final Appendable out, final int bufferSize) {
+    this.out     = out;
+    this.channel = null;
+    this.encoder = null;
+    this.bytes   = null;
+    buffer     = new char[checkBufferSize(bufferSize)];
+    bufferView = CharBuffer.wrap(buffer);
+  }
+
+  public JsonWriter(final WritableByteChannel channel) {
+    this(channel, DEFAULT_BUFFER_SIZE);
+  }
+
+  public JsonWriter(final WritableByteChannel channel, final int bufferSize) {
+    this.out     = null;
+    this.channel = channel;
+    this.encoder = StandardCharsets.UTF_8.newEncoder();
+    // large enough to encode the whole char buffer at once
+    this.bytes   = ByteBuffer.allocate(
+        (int) (checkBufferSize(bufferSize) * encoder.maxBytesPerChar()));
+    buffer     = new char[bufferSize];
+    bufferView = CharBuffer.wrap(buffer);
+  }
+
+  /**
+   * The buffer needs to hold at least a surrogate pair, which is only
+   * encoded as a whole.
+   */
+  private static int checkBufferSize(final int bufferSize) {
+    if (bufferSize < 2) {
+      throw new IllegalArgumentException(
+          "The buffer size needs to be at least 2, but was " + bufferSize);
+    }
+    return bufferSize;
+  }
+
+  /**
+   * Writes the value to the buffer. Call {@link #flush()} to make sure
+   * all of it reached the output.
+   */
+  public void write(final JsonValue value) {
+    if (value.isObject()) {
+      writeObject(value.asObject());
+    } else if (value.isArray()) {
+      writeArray(value.asArray());
+    } else if (value.isString()) {
+      writeString(value.asString());
+    } else {
+      // numbers and literals
+      writeRaw(value.toString());
+    }
+  }
+
+  private void writeObject(final JsonObject object) {
+    Vector<String>    names  = object.getNames();
+    Vector<JsonValue> values = object.getValues();
+    writeChar('{');
+    for (int i = 0; i < names.size(); i++) {
+      if (i > 0) {
+        writeChar(',');
+      }
+      writeString(names.at(i));
+      writeChar(':');
+      write(values.at(i));
+    }
+    writeChar('}');
+  }
+
+  private void writeArray(final JsonArray array) {
+    Vector<JsonValue> values = array.getValues();
+    writeChar('[');
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        writeChar(',');
+      }
+      write(values.at(i));
+    }
+    writeChar(']');
+  }
+
+  private void writeString(final String string) {
+    writeChar('"');
+    int runStart = 0;
+    int len = string.length();
+    for (int i = 0; i < len; i++) {
+      char c = string.charAt(i);
+      if (c == '"' || c == '\\' || c < 0x20) {
+        writeRaw(string, runStart, i);
+        writeEscape(c);
+        runStart = i + 1;
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < len
+            && Character.isLowSurrogate(string.charAt(i + 1))) {
+          // a complete pair is copied as is
+          i++;
+        } else {
+          writeRaw(string, runStart, i);
+          writeEscape(c);
+          runStart = i + 1;
+        }
+      }
+    }
+    writeRaw(string, runStart, len);
+    writeChar('"');
+  }
+
+  private void writeEscape(final char c) {
+    writeChar('\\');
+    switch (c) {
+      case '"':
+      case '\\':
+        writeChar(c);
+        break;
+      case '\b':
+        writeChar('b');
+        break;
+      case '\f':
+        writeChar('f');
+        break;
+      case '\n':
+        writeChar('n');
+        break;
+      case '\r':
+        writeChar('r');
+        break;
+      case '\t':
+        writeChar('t');
+        break;
+      default:
+        writeChar('u');
+        writeChar(HEX_DIGITS[c >> 12 & 0xf]);
+        writeChar(HEX_DIGITS[c >> 8 & 0xf]);
+        writeChar(HEX_DIGITS[c >> 4 & 0xf]);
+        writeChar(HEX_DIGITS[c & 0xf]);
+        break;
+    }
+  }
+
+  private void writeRaw(final String string) {
+    writeRaw(string, 0, string.length());
+  }
+
+  private void writeRaw(final String string, final int start, final int end) {
+    int i = start;
+    while (i < end) {
+      if (length == buffer.length) {
+        flushBuffer();
+      }
+      int n = Math.min(end - i, buffer.length - length);
+      string.getChars(i, i + n, buffer, length);
+      length += n;
+      i += n;
+    }
+  }
+
+  private void writeChar(final char c) {
+    if (length == buffer.length) {
+      flushBuffer();
+    }
+    buffer[length] = c;
+    length++;
+  }
+
+  /**
+   * Passes the buffered output on. Since strings are written with complete
+   * surrogate pairs only, nothing stays buffered once a value is written.
+   */
+  public void flush() {
+    flushBuffer();
+  }
+
+  private void flushBuffer() {
+    try {
+      if (out instanceof StringBuilder) {
+        ((StringBuilder) out).append(buffer, 0, length);
+        length = 0;
+      } else if (out != null) {
+        out.append(bufferView, 0, length);
+        length = 0;
+      } else {
+        encodeAndWrite();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void encodeAndWrite() throws IOException {
+    bufferView.limit(length).position(0);
+    while (true) {
+      CoderResult result = encoder.encode(bufferView, bytes, false);
+      if (result.isError()) {
+        result.throwException();
+      }
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      bytes.clear();
+      if (result.isUnderflow()) {
+        break;
+      }
+    }
+
+    int remaining = bufferView.remaining();
+    System.arraycopy(buffer, bufferView.position(), buffer, 0, remaining);
+    length = remaining;
+    bufferView.clear();
+  }
+
+  public static void main(final String[] args) {
+    // Checkstyle: stop
+    System.out.println("Testing JSON writer ...");
+    // Checkstyle: resume
+
+    String input = "[\"\\ud800\",\"a\\udc00b\",\"\\ud83d\\ude00\",\"\\ude00\\ud83d\","
+        + "\"\\u0001\\\"\",{\"\\udbff\":\"x\\ud800\"}]";
+    JsonValue expected = new JsonCharArrayParser(input).parse();
+
+    try {
+      for (int bufferSize = 2; bufferSize <= 16; bufferSize++) {
+        StringBuilder text = new StringBuilder();
+        JsonWriter toText = new JsonWriter(text, bufferSize);
+        toText.write(expected);
+        toText.flush();
+        checkRoundTrip(expected, text.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonWriter toChannel = new JsonWriter(
+            Channels.newChannel(bytes), bufferSize);
+        toChannel.write(expected);
+        toChannel.flush();
+        checkRoundTrip(expected, bytes.toString(StandardCharsets.UTF_8));
+      }
+    } catch (RuntimeException e) {
+      // Checkstyle: stop
+      System.err.println("FAILED: " + e.getMessage());
+      // Checkstyle: resume
+    }
+  }
+
+  private static void checkRoundTrip(final JsonValue expected, final String written) {
+    JsonValue actual = new JsonCharArrayParser(written).parse();
+    if (!sameStrings(expected, actual)) {
+      throw new RuntimeException("Round trip changed the strings: " + written);
+    }
+  }
+
+  private static boolean sameStrings(final JsonValue a, final JsonValue b) {
+    if (a.isString()) {
+      return b.isString() && a.asString().equals(b.asString());
+    }
+    if (a.isArray()) {
+      JsonArray arrA = a.asArray();
+      JsonArray arrB = b.asArray();
+      for (int i = 0; i < arrA.size(); i++) {
+        if (!sameStrings(arrA.get(i), arrB.get(i))) {
+          return false;
+        }
+      }
+      return arrA.size() == arrB.size();
+    }
+    if (a.isObject()) {
+      Vector<String>    namesA = a.asObject().getNames();
+      Vector<String>    namesB = b.asObject().getNames();
+      Vector<JsonValue> valuesA = a.asObject().getValues();
+      Vector<JsonValue> valuesB = b.asObject().getValues();
+      for (int i = 0; i < namesA.size(); i++) {
+        if (!namesA.at(i).equals(namesB.at(i))
+            || !sameStrings(valuesA.at(i), valuesB.at(i))) {
+          return false;
+        }
+      }
+      return namesA.size() == namesB.size();
+    }
+    return a.toString().equals(b.toString());
+  }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Stefan Marr
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON string that still refers to its UTF-8 bytes in the input of a
+ * {@link JsonUtf8Parser}. The bytes are only decoded when the string is
+ * accessed for the first time, and the input is released afterwards.
+ *
+ * <p>The input needs to stay unchanged until then, and malformed UTF-8 is
+ * decoded to replacement characters instead of being reported as error.
+ */
+final class LazyJsonString extends JsonValue {
+
+  private ByteBuffer input;
+  private final int  start;
+  private final int  end;
+  private final boolean hasEscapes;
+  private String     string;
+
+  /**
+   * @param start the index of the first byte after the opening quote
+   * @param end the index of the closing quote
+   */
+  LazyJsonString(final ByteBuffer input, final int start, final int end,
+      final boolean hasEscapes) {
+    this.input      = input;
+    this.start      = start;
+    this.end        = end;
+    this.hasEscapes = hasEscapes;
+  }
+
+  @Override
+  public boolean isString() {
+    return true;
+  }
+
+  @Override
+  public String asString() {
+    if (string == null) {
+      string = decode(input, start, end, hasEscapes);
+      input  = null;
+    }
+    return string;
+  }
+
+  static String decode(final ByteBuffer input, final int start, final int end,
+      final boolean hasEscapes) {
+    byte[] bytes = new byte[end - start];
+    input.get(start, bytes);
+    if (!hasEscapes) {
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // the input was validated by the parser, so escapes are complete
+    StringBuilder result = new StringBuilder(bytes.length);
+    int runStart = 0;
+    int i = 0;
+    while (i < bytes.length) {
+      if (bytes[i] != '\\') {
+        i++;
+        continue;
+      }
+      result.append(new String(bytes, runStart, i - runStart, StandardCharsets.UTF_8));
+      byte escaped = bytes[i + 1];
+      i += 2;
+      switch (escaped) {
+        case 'b':
+          result.append('\b');
+          break;
+        case 'f':
+          result.append('\f');
+          break;
+        case 'n':
+          result.append('\n');
+          break;
+        case 'r':
+          result.append('\r');
+          break;
+        case 't':
+          result.append('\t');
+          break;
+        case 'u':
+          result.append((char) Integer.parseInt(
+              new String(bytes, i, 4, StandardCharsets.US_ASCII), 16));
+          i += 4;
+          break;
+        default:
+          result.append((char) escaped);
+          break;
+      }
+      runStart = i;
+    }
+    result.append(new String(bytes, runStart, i - runStart, StandardCharsets.UTF_8));
+    return result.toString();
+  }
+}
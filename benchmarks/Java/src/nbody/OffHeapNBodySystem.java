@@ -0,0 +1,111 @@
+/* The Computer Language Benchmarks Game
+ * http://shootout.alioth.debian.org/
+ *
+ * Based on nbody.java and adapted basde on the SOM version.
+ */
+package nbody;
+
+import som.OffHeapArena;
+import som.OffHeapDoubleVector;
+
+/**
+ * A variant of {@link NBodySystem} that keeps the state of the bodies in an
+ * off-heap vector, with {@link #STRIDE} consecutive elements per body. The
+ * computation is the same, so it results in the same energy.
+ */
+public final class OffHeapNBodySystem implements AutoCloseable {
+  private static final int X    = 0;
+  private static final int Y    = 1;
+  private static final int Z    = 2;
+  private static final int VX   = 3;
+  private static final int VY   = 4;
+  private static final int VZ   = 5;
+  private static final int MASS = 6;
+
+  private static final int STRIDE = 7;
+
+  private final OffHeapArena        arena;
+  private final OffHeapDoubleVector state;
+  private final int                 numBodies;
+
+  public OffHeapNBodySystem() {
+    Body[] bodies = new NBodySystem().createBodies();
+    numBodies = bodies.length;
+    arena = new OffHeapArena();
+    state = new OffHeapDoubleVector(arena, numBodies * STRIDE);
+
+    for (Body b : bodies) {
+      state.append(b.getX());
+      state.append(b.getY());
+      state.append(b.getZ());
+      state.append(b.getVX());
+      state.append(b.getVY());
+      state.append(b.getVZ());
+      state.append(b.getMass());
+    }
+  }
+
+  private double get(final int body, final int field) {
+    return state.at(body * STRIDE + field);
+  }
+
+  private void set(final int body, final int field, final double value) {
+    state.atPut(body * STRIDE + field, value);
+  }
+
+  public void advance(final double dt) {
+
+    for (int i = 0; i < numBodies; ++i) {
+      for (int j = i + 1; j < numBodies; ++j) {
+        double dx = get(i, X) - get(j, X);
+        double dy = get(i, Y) - get(j, Y);
+        double dz = get(i, Z) - get(j, Z);
+
+        double dSquared = dx * dx + dy * dy + dz * dz;
+        double distance = Math.sqrt(dSquared);
+        double mag = dt / (dSquared * distance);
+
+        set(i, VX, get(i, VX) - (dx * get(j, MASS) * mag));
+        set(i, VY, get(i, VY) - (dy * get(j, MASS) * mag));
+        set(i, VZ, get(i, VZ) - (dz * get(j, MASS) * mag));
+
+        set(j, VX, get(j, VX) + (dx * get(i, MASS) * mag));
+        set(j, VY, get(j, VY) + (dy * get(i, MASS) * mag));
+        set(j, VZ, get(j, VZ) + (dz * get(i, MASS) * mag));
+      }
+    }
+
+    for (int i = 0; i < numBodies; ++i) {
+      set(i, X, get(i, X) + dt * get(i, VX));
+      set(i, Y, get(i, Y) + dt * get(i, VY));
+      set(i, Z, get(i, Z) + dt * get(i, VZ));
+    }
+  }
+
+  public double energy() {
+    double e = 0.0;
+
+    for (int i = 0; i < numBodies; ++i) {
+      e += 0.5 * get(i, MASS)
+          * (get(i, VX) * get(i, VX) +
+             get(i, VY) * get(i, VY) +
+             get(i, VZ) * get(i, VZ));
+
+      for (int j = i + 1; j < numBodies; ++j) {
+        double dx = get(i, X) - get(j, X);
+        double dy = get(i, Y) - get(j, Y);
+        double dz = get(i, Z) - get(j, Z);
+
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        e -= (get(i, MASS) * get(j, MASS)) / distance;
+      }
+    }
+    return e;
+  }
+
+  /** Frees the off-heap state of the bodies. */
+  @Override
+  public void close() {
+    arena.close();
+  }
+}
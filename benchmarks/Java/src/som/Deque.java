@@ -0,0 +1,209 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+/**
+ * A double-ended queue backed by a circular buffer.
+ *
+ * <p>{@link Vector#removeFirst()} only advances the start index, so the
+ * consumed prefix of a vector used as FIFO queue is not reclaimed until
+ * {@code removeAll()}. This deque instead wraps around, so that appending
+ * and removing elements reuses the same storage. Its capacity is bounded by
+ * the largest number of elements it held at once, and once it is drained,
+ * storage beyond the minimum capacity is released. Like a vector created
+ * without a size, it allocates no storage until the first element is added,
+ * which keeps empty work-lists cheap.
+ *
+ * Porting notes:
+ *  - the SOM class library has no deque, DeltaBlueDeque uses this one for
+ *    the work lists of its planner.
+ *  - the capacity is always a power of two, so that indexes can wrap with
+ *    a mask.
+ */
+public class Deque<E> {
+  private static final int      MIN_CAPACITY = 8;
+  private static final Object[] EMPTY        = new Object[0];
+
+  private Object[] storage;
+  private int      head;
+  private int      size;
+
+  public Deque(final int size) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < size) {
+      capacity *= 2;
+    }
+    storage = new Object[capacity];
+  }
+
+  public Deque() {
+    storage = EMPTY;
+  }
+
+  private int mask() {
+    return storage.length - 1;
+  }
+
+  public void append(final E elem) {
+    if (size == storage.length) {
+      grow();
+    }
+    storage[(head + size) & mask()] = elem;
+    size++;
+  }
+
+  public void addFirst(final E elem) {
+    if (size == storage.length) {
+      grow();
+    }
+    head = (head - 1) & mask();
+    storage[head] = elem;
+    size++;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E removeFirst() {
+    if (isEmpty()) {
+      return null;
+    }
+    E elem = (E) storage[head];
+    storage[head] = null;
+    head = (head + 1) & mask();
+    size--;
+    shrinkIfDrained();
+    return elem;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E removeLast() {
+    if (isEmpty()) {
+      return null;
+    }
+    int last = (head + size - 1) & mask();
+    E elem = (E) storage[last];
+    storage[last] = null;
+    size--;
+    shrinkIfDrained();
+    return elem;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E first() {
+    if (isEmpty()) {
+      return null;
+    }
+    return (E) storage[head];
+  }
+
+  @SuppressWarnings("unchecked")
+  public E last() {
+    if (isEmpty()) {
+      return null;
+    }
+    return (E) storage[(head + size - 1) & mask()];
+  }
+
+  /** Returns the element at the given position, counted from the first. */
+  @SuppressWarnings("unchecked")
+  public E at(final int idx) {
+    if (idx < 0 || idx >= size) {
+      return null;
+    }
+    return (E) storage[(head + idx) & mask()];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return storage.length;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(final ForEachInterface<E> fn) {
+    int mask = mask();
+    for (int i = 0; i < size; i++) {
+      fn.apply((E) storage[(head + i) & mask]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public boolean hasSome(final TestInterface<E> fn) {
+    int mask = mask();
+    for (int i = 0; i < size; i++) {
+      if (fn.test((E) storage[(head + i) & mask])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E getOne(final TestInterface<E> fn) {
+    int mask = mask();
+    for (int i = 0; i < size; i++) {
+      E e = (E) storage[(head + i) & mask];
+      if (fn.test(e)) {
+        return e;
+      }
+    }
+    return null;
+  }
+
+  public void removeAll() {
+    storage = EMPTY;
+    head = 0;
+    size = 0;
+  }
+
+  private void grow() {
+    resize(Math.max(MIN_CAPACITY, storage.length * 2));
+  }
+
+  /**
+   * Checked on every removal, so it only tests for the empty deque instead
+   * of shrinking step by step, which would copy the elements repeatedly
+   * while a work-list is drained.
+   */
+  private void shrinkIfDrained() {
+    if (size == 0 && storage.length > MIN_CAPACITY) {
+      storage = new Object[MIN_CAPACITY];
+      head = 0;
+    }
+  }
+
+  private void resize(final int capacity) {
+    Object[] newStorage = new Object[capacity];
+    int mask = mask();
+    for (int i = 0; i < size; i++) {
+      newStorage[i] = storage[(head + i) & mask];
+    }
+    storage = newStorage;
+    head = 0;
+  }
+}
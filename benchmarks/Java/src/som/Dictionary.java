@@ -22,10 +22,14 @@
  */
 package som;
 
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import som.Dictionary.CustomHash;
 
 
-public class Dictionary<K extends CustomHash, V> {
+public class Dictionary<K extends CustomHash, V> extends AbstractDictionary<K, V> {
 
   public interface CustomHash {
     int customHash();
@@ -72,10 +76,12 @@ public class Dictionary<K extends CustomHash, V> {
     return hash ^ hash >>> 16;
   }
 
+  @Override
   public int size() {
     return size;
   }
 
+  @Override
   public boolean isEmpty() {
     return size == 0;
   }
@@ -88,6 +94,7 @@ public class Dictionary<K extends CustomHash, V> {
     return buckets[getBucketIdx(hash)];
   }
 
+  @Override
   public V at(final K key) {
     int hash = hash(key);
     Entry<K, V> e = getBucket(hash);
@@ -101,6 +108,7 @@ public class Dictionary<K extends CustomHash, V> {
     return null;
   }
 
+  @Override
   public boolean containsKey(final K key) {
     int hash = hash(key);
     Entry<K, V> e = getBucket(hash);
@@ -114,6 +122,7 @@ public class Dictionary<K extends CustomHash, V> {
     return false;
   }
 
+  @Override
   public void atPut(final K key, final V value) {
     int hash = hash(key);
     int i = getBucketIdx(hash);
@@ -215,12 +224,14 @@ public class Dictionary<K extends CustomHash, V> {
     }
   }
 
+  @Override
   @SuppressWarnings("unchecked")
   public void removeAll() {
     buckets = new Entry[buckets.length];
     size = 0;
   }
 
+  @Override
   public Vector<K> getKeys() {
     Vector<K> keys = new Vector<>(size);
     for (int i = 0; i < buckets.length; ++i) {
@@ -233,6 +244,7 @@ public class Dictionary<K extends CustomHash, V> {
     return keys;
   }
 
+  @Override
   public Vector<V> getValues() {
     Vector<V> values = new Vector<>(size);
     for (int i = 0; i < buckets.length; ++i) {
@@ -244,4 +256,21 @@ public class Dictionary<K extends CustomHash, V> {
     }
     return values;
   }
+
+  /**
+   * A spliterator over the entries, as {@link Pair} objects, which binds
+   * to the buckets when it is created. Like the streams over it, it is not
+   * in the SOM class library, and only used by benchmark variants.
+   */
+  public Spliterator<Pair<K, V>> spliterator() {
+    return new DictionarySpliterator<>(buckets, 0, buckets.length, size, true);
+  }
+
+  public Stream<Pair<K, V>> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  public Stream<Pair<K, V>> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
 }
@@ -0,0 +1,123 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import som.Dictionary.CustomHash;
+import som.Dictionary.Entry;
+
+/**
+ * A {@link Spliterator} over the entries of a {@link Dictionary}, which
+ * are provided as {@link Pair} objects. Setting the key or value of a pair
+ * does not change the dictionary.
+ *
+ * <p>It binds to the bucket array when it is created, and does not detect
+ * later modifications of the dictionary. Splitting divides the buckets,
+ * so only the initial spliterator knows its exact size and is
+ * {@link #SIZED}. The spliterators split from it only estimate their size.
+ */
+final class DictionarySpliterator<K extends CustomHash, V>
+    implements Spliterator<Pair<K, V>> {
+  private final Entry<K, V>[] buckets;
+  private int                 index;
+  private final int           fence;
+  private Entry<K, V>         current;
+  private long                estimate;
+  private boolean             exact;
+
+  DictionarySpliterator(final Entry<K, V>[] buckets, final int from, final int to,
+      final long estimate, final boolean exact) {
+    this.buckets  = buckets;
+    this.index    = from;
+    this.fence    = to;
+    this.estimate = estimate;
+    this.exact    = exact;
+  }
+
+  @Override
+  public Spliterator<Pair<K, V>> trySplit() {
+    int lo  = index;
+    int mid = (lo + fence) >>> 1;
+    if (current != null || lo >= mid) {
+      return null;
+    }
+    index = mid;
+    estimate >>>= 1;
+    exact = false;
+    return new DictionarySpliterator<>(buckets, lo, mid, estimate, false);
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super Pair<K, V>> action) {
+    while (current == null) {
+      if (index >= fence) {
+        return false;
+      }
+      current = buckets[index];
+      index++;
+    }
+
+    Entry<K, V> e = current;
+    current = e.next;
+    if (exact) {
+      estimate--;
+    }
+    action.accept(new Pair<>(e.key, e.value));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(final Consumer<? super Pair<K, V>> action) {
+    Entry<K, V> e = current;
+    current = null;
+    if (exact) {
+      estimate = 0;
+    }
+    while (e != null) {
+      action.accept(new Pair<>(e.key, e.value));
+      e = e.next;
+    }
+
+    int i = index;
+    index = fence;
+    for (; i < fence; i++) {
+      e = buckets[i];
+      while (e != null) {
+        action.accept(new Pair<>(e.key, e.value));
+        e = e.next;
+      }
+    }
+  }
+
+  @Override
+  public long estimateSize() {
+    return estimate;
+  }
+
+  @Override
+  public int characteristics() {
+    return exact ? (SIZED | DISTINCT) : DISTINCT;
+  }
+}
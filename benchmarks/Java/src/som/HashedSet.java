@@ -0,0 +1,137 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+/**
+ * A {@link Set} that finds elements with a hash table instead of a linear
+ * scan, which makes {@code add()} and {@code contains()} O(1) on average.
+ *
+ * <p>The elements themselves remain in the insertion-ordered vector of
+ * {@link Set}, so iteration order does not change. The hash table is an
+ * open-addressing table of indexes into this vector, hashed with
+ * {@code hashCode()} and compared with {@code equals()}.
+ *
+ * Porting notes:
+ *  - used by the hashed-sets variant of Havlak, where the linear scans of
+ *    the SOM {@link Set} dominate.
+ */
+public class HashedSet<E> extends Set<E> {
+  /** The elements in insertion order, shared with {@link Set}. */
+  private final Vector<E> items;
+
+  /** Index into {@code items} plus one, 0 marks an empty slot. */
+  private int[] slots;
+  private int[] hashes;
+
+  public HashedSet() {
+    this(Constants.INITIAL_SIZE);
+  }
+
+  public HashedSet(final int size) {
+    this(new Vector<E>(size), size);
+  }
+
+  private HashedSet(final Vector<E> items, final int size) {
+    super(items);
+    this.items = items;
+    int capacity = 16;
+    while (capacity * 2 < size * 3) {
+      capacity *= 2;
+    }
+    slots  = new int[capacity];
+    hashes = new int[capacity];
+  }
+
+  protected int hash(final E obj) {
+    int hash = obj.hashCode();
+    return hash ^ hash >>> 16;
+  }
+
+  protected boolean match(final E stored, final E obj) {
+    return stored.equals(obj);
+  }
+
+  /**
+   * @return the slot holding the element, or the empty slot where it would
+   *         need to be inserted
+   */
+  private int findSlot(final int hash, final E obj) {
+    int mask = slots.length - 1;
+    int i = hash & mask;
+    while (true) {
+      int idx = slots[i];
+      if (idx == 0 || (hashes[i] == hash && match(items.at(idx - 1), obj))) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  @Override
+  public void add(final E obj) {
+    int hash = hash(obj);
+    int i = findSlot(hash, obj);
+    if (slots[i] != 0) {
+      return;
+    }
+
+    items.append(obj);
+    slots[i]  = items.size();
+    hashes[i] = hash;
+
+    if (items.size() * 3 >= slots.length * 2) {
+      resize();
+    }
+  }
+
+  private void resize() {
+    int[] oldSlots  = slots;
+    int[] oldHashes = hashes;
+    slots  = new int[oldSlots.length * 2];
+    hashes = new int[oldSlots.length * 2];
+
+    int mask = slots.length - 1;
+    for (int j = 0; j < oldSlots.length; j++) {
+      if (oldSlots[j] != 0) {
+        int i = oldHashes[j] & mask;
+        while (slots[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        slots[i]  = oldSlots[j];
+        hashes[i] = oldHashes[j];
+      }
+    }
+  }
+
+  @Override
+  public boolean contains(final E obj) {
+    return slots[findSlot(hash(obj), obj)] != 0;
+  }
+
+  @Override
+  public void removeAll() {
+    super.removeAll();
+    slots  = new int[slots.length];
+    hashes = new int[hashes.length];
+  }
+}
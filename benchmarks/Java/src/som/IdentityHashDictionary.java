@@ -0,0 +1,166 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+/**
+ * An identity dictionary with open addressing and linear probing, which
+ * hashes keys with {@link System#identityHashCode(Object)}. Thus, keys can
+ * be any object and do not need to implement
+ * {@link Dictionary.CustomHash}.
+ *
+ * <p>Like {@code java.util.IdentityHashMap}, keys and values are
+ * interleaved in a single array, with the key at an even index and its
+ * value directly after it. A lookup thus touches one array, and usually a
+ * single cache line.
+ *
+ * Porting notes:
+ *  - an alternative to {@link IdentityDictionary} for the identity-hash
+ *    variant of Havlak.
+ *  - null keys are not supported, because null marks an empty slot.
+ *  - the identity hashes differ between runs, so the order of
+ *    {@code getKeys()} and {@code getValues()} does, too.
+ */
+public final class IdentityHashDictionary<K, V> extends AbstractDictionary<K, V> {
+
+  private Object[] table;
+  private int      size;
+
+  public IdentityHashDictionary(final int size) {
+    int capacity = Dictionary.INITIAL_CAPACITY;
+    while (capacity < size) {
+      capacity *= 2;
+    }
+    table = new Object[2 * capacity];
+  }
+
+  public IdentityHashDictionary() {
+    this(Dictionary.INITIAL_CAPACITY);
+  }
+
+  /**
+   * @return the even index of the first slot to probe for the key
+   */
+  private static int hash(final Object key, final int length) {
+    int h = System.identityHashCode(key);
+    // multiply by -127, and shift left to use the least significant bits
+    // as part of the hash, as IdentityHashMap does
+    return ((h << 1) - (h << 8)) & (length - 1);
+  }
+
+  /**
+   * @return the index of the slot holding the key, or of the empty slot
+   *         where it would need to be inserted
+   */
+  private static int findSlot(final Object[] table, final Object key) {
+    int length = table.length;
+    int i = hash(key, length);
+    while (true) {
+      Object k = table[i];
+      if (k == null || k == key) {
+        return i;
+      }
+      i = (i + 2) & (length - 1);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V at(final K key) {
+    return (V) table[findSlot(table, key) + 1];
+  }
+
+  @Override
+  public boolean containsKey(final K key) {
+    return table[findSlot(table, key)] != null;
+  }
+
+  @Override
+  public void atPut(final K key, final V value) {
+    int i = findSlot(table, key);
+
+    if (table[i] == null) {
+      table[i] = key;
+      size += 1;
+    }
+    table[i + 1] = value;
+
+    // keep the load factor below 2/3 to keep probe sequences short
+    if (size * 3 >= table.length) {
+      resize();
+    }
+  }
+
+  private void resize() {
+    Object[] old = table;
+    table = new Object[old.length * 2];
+
+    for (int j = 0; j < old.length; j += 2) {
+      Object key = old[j];
+      if (key != null) {
+        int i = findSlot(table, key);
+        table[i]     = key;
+        table[i + 1] = old[j + 1];
+      }
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    table = new Object[table.length];
+    size = 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Vector<K> getKeys() {
+    Vector<K> result = new Vector<>(size);
+    for (int i = 0; i < table.length; i += 2) {
+      if (table[i] != null) {
+        result.append((K) table[i]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Vector<V> getValues() {
+    Vector<V> result = new Vector<>(size);
+    for (int i = 0; i < table.length; i += 2) {
+      if (table[i] != null) {
+        result.append((V) table[i + 1]);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,64 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+/**
+ * A {@link Set} specialized for {@code int} elements.
+ */
+public class IntSet {
+  private final IntVector items;
+
+  public IntSet() {
+    this(Constants.INITIAL_SIZE);
+  }
+
+  public IntSet(final int size) {
+    items = new IntVector(size);
+  }
+
+  public int size() {
+    return items.size();
+  }
+
+  public void forEach(final IntForEachInterface fn) {
+    items.forEach(fn);
+  }
+
+  public boolean hasSome(final IntTestInterface fn) {
+    return items.hasSome(fn);
+  }
+
+  public void add(final int elem) {
+    if (!contains(elem)) {
+      items.append(elem);
+    }
+  }
+
+  public boolean contains(final int elem) {
+    return items.contains(elem);
+  }
+
+  public void removeAll() {
+    items.removeAll();
+  }
+}
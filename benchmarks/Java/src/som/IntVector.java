@@ -0,0 +1,153 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Vector} specialized for {@code int} elements, which are stored
+ * unboxed in an {@code int[]}.
+ *
+ * Porting notes:
+ *  - used instead of {@code Vector<Integer>} by the int-collections variant
+ *    of Havlak, to measure the cost of boxing.
+ *  - {@code at()} returns 0 for indexes beyond the storage, where
+ *    {@link Vector} returns null.
+ *  - {@code first()} and {@code removeFirst()} throw on an empty vector,
+ *    where {@link Vector} returns null.
+ */
+public class IntVector {
+  private int[] storage;
+  private int   firstIdx;
+  private int   lastIdx;
+
+  public static IntVector with(final int elem) {
+    IntVector v = new IntVector(1);
+    v.append(elem);
+    return v;
+  }
+
+  public IntVector(final int size) {
+    storage = size == 0 ? null : new int[size];
+  }
+
+  public IntVector() { }
+
+  public int at(final int idx) {
+    if (storage == null || idx >= storage.length) {
+      return 0;
+    }
+    return storage[idx];
+  }
+
+  public void atPut(final int idx, final int val) {
+    if (storage == null) {
+      storage = new int[Math.max(idx + 1, Constants.INITIAL_SIZE)];
+    } else if (idx >= storage.length) {
+      int newLength = storage.length;
+      while (newLength <= idx) {
+        newLength *= 2;
+      }
+      storage = Arrays.copyOf(storage, newLength);
+    }
+    storage[idx] = val;
+    if (lastIdx < idx + 1) {
+      lastIdx = idx + 1;
+    }
+  }
+
+  public void append(final int elem) {
+    if (storage == null) {
+      storage = new int[Constants.INITIAL_SIZE];
+    } else if (lastIdx >= storage.length) {
+      // Need to expand capacity first
+      storage = Arrays.copyOf(storage, 2 * storage.length);
+    }
+
+    storage[lastIdx] = elem;
+    lastIdx++;
+  }
+
+  public boolean isEmpty() {
+    return lastIdx == firstIdx;
+  }
+
+  public void forEach(final IntForEachInterface fn) {
+    for (int i = firstIdx; i < lastIdx; i++) {
+      fn.apply(storage[i]);
+    }
+  }
+
+  public boolean hasSome(final IntTestInterface fn) {
+    for (int i = firstIdx; i < lastIdx; i++) {
+      if (fn.test(storage[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean contains(final int elem) {
+    for (int i = firstIdx; i < lastIdx; i++) {
+      if (storage[i] == elem) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int first() {
+    if (isEmpty()) {
+      throw new IndexOutOfBoundsException("IntVector is empty");
+    }
+    return storage[firstIdx];
+  }
+
+  public int removeFirst() {
+    if (isEmpty()) {
+      throw new IndexOutOfBoundsException("IntVector is empty");
+    }
+    firstIdx++;
+    return storage[firstIdx - 1];
+  }
+
+  public void removeAll() {
+    firstIdx = 0;
+    lastIdx = 0;
+  }
+
+  public int size() {
+    return lastIdx - firstIdx;
+  }
+
+  public int capacity() {
+    return storage == null ? 0 : storage.length;
+  }
+
+  /** Sorts the elements in ascending order. */
+  public void sort() {
+    if (size() > 1) {
+      Arrays.sort(storage, firstIdx, lastIdx);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Owns the off-heap storage of {@link OffHeapVector}s, and frees it
+ * explicitly when it is closed. Afterwards, the vectors of the arena can
+ * not be used anymore.
+ *
+ * <p>The storage is allocated as direct {@link ByteBuffer}s. These are
+ * freed with {@code sun.misc.Unsafe.invokeCleaner}, when it is available.
+ * Otherwise, the memory is freed once the buffers are garbage collected.
+ *
+ * <p>An arena is not thread-safe.
+ *
+ * Porting notes:
+ *  - the Foreign Function &amp; Memory API, which provides arenas and memory
+ *    segments, is only an incubator module in Java 17.
+ */
+public final class OffHeapArena implements AutoCloseable {
+  private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+  private final Vector<OffHeapVector> vectors = new Vector<>();
+  private boolean alive = true;
+
+  public boolean isAlive() {
+    return alive;
+  }
+
+  void register(final OffHeapVector vector) {
+    checkAlive();
+    vectors.append(vector);
+  }
+
+  ByteBuffer allocate(final int bytes) {
+    checkAlive();
+    return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+  }
+
+  /** Frees storage that is not used by any vector anymore. */
+  void free(final ByteBuffer buffer) {
+    if (INVOKE_CLEANER == null) {
+      return;
+    }
+    try {
+      INVOKE_CLEANER.invokeExact(buffer);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to free off-heap storage", t);
+    }
+  }
+
+  /** Detaches all vectors from their storage, and frees it. */
+  @Override
+  public void close() {
+    if (!alive) {
+      return;
+    }
+    alive = false;
+    vectors.forEach(v -> v.release());
+    vectors.removeAll();
+  }
+
+  private void checkAlive() {
+    if (!alive) {
+      throw new IllegalStateException("The arena is already closed");
+    }
+  }
+
+  private static MethodHandle lookupInvokeCleaner() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      MethodHandle invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass,
+          "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class));
+      return invokeCleaner.bindTo(theUnsafe.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+/**
+ * A vector of {@code double} elements, stored off-heap in an
+ * {@link OffHeapArena}.
+ *
+ * Porting notes:
+ *  - the SOM class library has no off-heap storage, NBodyOffHeap uses this
+ *    vector for the state of its bodies.
+ *  - {@code at()} throws for indexes beyond the capacity, where
+ *    {@link Vector} returns null.
+ */
+public final class OffHeapDoubleVector extends OffHeapVector {
+  private static final int SHIFT = 3;
+
+  public OffHeapDoubleVector(final OffHeapArena arena, final int size) {
+    super(arena, size, Double.BYTES);
+  }
+
+  public OffHeapDoubleVector(final OffHeapArena arena) {
+    this(arena, Constants.INITIAL_SIZE);
+  }
+
+  public double at(final int idx) {
+    return storage().getDouble(idx << SHIFT);
+  }
+
+  public void atPut(final int idx, final double val) {
+    ensureCapacity(idx).putDouble(idx << SHIFT, val);
+    if (lastIdx < idx + 1) {
+      lastIdx = idx + 1;
+    }
+  }
+
+  public void append(final double elem) {
+    ensureCapacity(lastIdx).putDouble(lastIdx << SHIFT, elem);
+    lastIdx++;
+  }
+}
@@ -0,0 +1,110 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The common parts of vectors of primitive elements, whose storage is
+ * allocated off-heap by an {@link OffHeapArena}. The storage is not scanned
+ * by the garbage collector, and is freed when the arena is closed.
+ *
+ * Porting notes:
+ *  - there is no {@code removeFirst()}, the elements always start at index 0.
+ */
+public abstract class OffHeapVector {
+  private final OffHeapArena arena;
+  private final int          elementBytes;
+
+  private ByteBuffer storage;
+  private int        capacity;
+  protected int      lastIdx;
+
+  protected OffHeapVector(final OffHeapArena arena, final int size, final int elementBytes) {
+    this.arena        = arena;
+    this.elementBytes = elementBytes;
+    this.capacity     = Math.max(size, Constants.INITIAL_SIZE);
+    this.storage      = arena.allocate(capacity * elementBytes);
+    arena.register(this);
+  }
+
+  /**
+   * @return the storage, after checking that the arena is not closed
+   */
+  protected final ByteBuffer storage() {
+    if (storage == null) {
+      throw new IllegalStateException("The arena of this vector is closed");
+    }
+    return storage;
+  }
+
+  /** Grows the storage so that it can hold the given index. */
+  protected final ByteBuffer ensureCapacity(final int idx) {
+    ByteBuffer old = storage();
+    if (idx < capacity) {
+      return old;
+    }
+
+    int newCapacity = capacity;
+    while (newCapacity <= idx) {
+      newCapacity *= 2;
+    }
+
+    ByteBuffer grown = arena.allocate(newCapacity * elementBytes);
+    old.position(0).limit(lastIdx * elementBytes);
+    grown.put(old);
+    grown.clear();
+
+    storage  = grown;
+    capacity = newCapacity;
+    arena.free(old);
+    return grown;
+  }
+
+  /** Called by the arena when it is closed. */
+  final void release() {
+    ByteBuffer old = storage;
+    storage = null;
+    lastIdx = 0;
+    if (old != null) {
+      arena.free(old);
+    }
+  }
+
+  public final boolean isEmpty() {
+    return lastIdx == 0;
+  }
+
+  public final int size() {
+    return lastIdx;
+  }
+
+  public final int capacity() {
+    return capacity;
+  }
+
+  public final void removeAll() {
+    storage();
+    lastIdx = 0;
+  }
+}
@@ -0,0 +1,179 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import som.Dictionary.CustomHash;
+
+/**
+ * A dictionary with open addressing and linear probing.
+ *
+ * <p>Instead of allocating an entry per mapping as {@link Dictionary} does,
+ * keys, values, and their hashes are stored in parallel arrays. A lookup
+ * thus probes consecutive array slots instead of following a chain of
+ * entries.
+ *
+ * Porting notes:
+ *  - an alternative to {@link Dictionary} for the open-addressing variant
+ *    of Havlak.
+ *  - null keys are not supported, because null marks an empty slot.
+ */
+public class OpenAddressingDictionary<K extends CustomHash, V>
+    extends AbstractDictionary<K, V> {
+
+  private Object[] keys;
+  private Object[] values;
+  private int[]    hashes;
+  private int      size;
+
+  public OpenAddressingDictionary(final int size) {
+    int capacity = Dictionary.INITIAL_CAPACITY;
+    while (capacity < size) {
+      capacity *= 2;
+    }
+    allocate(capacity);
+  }
+
+  public OpenAddressingDictionary() {
+    this(Dictionary.INITIAL_CAPACITY);
+  }
+
+  private void allocate(final int capacity) {
+    keys   = new Object[capacity];
+    values = new Object[capacity];
+    hashes = new int[capacity];
+  }
+
+  private static int hash(final CustomHash key) {
+    int hash = key.customHash();
+    return hash ^ hash >>> 16;
+  }
+
+  protected boolean match(final Object storedKey, final K key) {
+    return key.equals(storedKey);
+  }
+
+  /**
+   * @return the index of the slot holding the key, or of the empty slot
+   *         where it would need to be inserted
+   */
+  private int findSlot(final int hash, final K key) {
+    int mask = keys.length - 1;
+    int i = hash & mask;
+    while (true) {
+      Object k = keys[i];
+      if (k == null || (hashes[i] == hash && match(k, key))) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V at(final K key) {
+    int i = findSlot(hash(key), key);
+    return (V) values[i];
+  }
+
+  @Override
+  public boolean containsKey(final K key) {
+    int i = findSlot(hash(key), key);
+    return keys[i] != null;
+  }
+
+  @Override
+  public void atPut(final K key, final V value) {
+    int hash = hash(key);
+    int i = findSlot(hash, key);
+
+    if (keys[i] == null) {
+      keys[i]   = key;
+      hashes[i] = hash;
+      size += 1;
+    }
+    values[i] = value;
+
+    // keep the load factor below 2/3 to keep probe sequences short
+    if (size * 3 >= keys.length * 2) {
+      resize();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize() {
+    Object[] oldKeys   = keys;
+    Object[] oldValues = values;
+    int[]    oldHashes = hashes;
+
+    allocate(oldKeys.length * 2);
+
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldKeys[j] != null) {
+        int i = findSlot(oldHashes[j], (K) oldKeys[j]);
+        keys[i]   = oldKeys[j];
+        values[i] = oldValues[j];
+        hashes[i] = oldHashes[j];
+      }
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    allocate(keys.length);
+    size = 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Vector<K> getKeys() {
+    Vector<K> result = new Vector<>(size);
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        result.append((K) keys[i]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Vector<V> getValues() {
+    Vector<V> result = new Vector<>(size);
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        result.append((V) values[i]);
+      }
+    }
+    return result;
+  }
+}
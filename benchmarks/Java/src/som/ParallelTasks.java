@@ -0,0 +1,183 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join tasks for the parallel bulk operations of {@link Vector}.
+ *
+ * <p>Each task works on a range {@code [from, to)} of a storage array, and
+ * splits it in halves until it is not larger than the threshold. The tasks
+ * run in the common {@link ForkJoinPool}.
+ */
+final class ParallelTasks {
+  private ParallelTasks() { }
+
+  static final int DEFAULT_THRESHOLD = 1024;
+
+  static void checkThreshold(final int threshold) {
+    if (threshold < 1) {
+      throw new IllegalArgumentException(
+          "The split threshold needs to be at least 1, but was " + threshold);
+    }
+  }
+
+  static <E> void forEach(final Object[] storage, final int from, final int to,
+      final int threshold, final ForEachInterface<E> fn) {
+    ForkJoinPool.commonPool().invoke(new ForEachTask<>(storage, from, to, threshold, fn));
+  }
+
+  static <E, T> void collect(final Object[] storage, final int from, final int to,
+      final int threshold, final CollectInterface<E, T> fn, final Object[] results) {
+    ForkJoinPool.commonPool().invoke(
+        new CollectTask<>(storage, from, to, threshold, fn, results, from));
+  }
+
+  static <E> boolean hasSome(final Object[] storage, final int from, final int to,
+      final int threshold, final TestInterface<E> fn) {
+    return ForkJoinPool.commonPool().invoke(
+        new HasSomeTask<>(storage, from, to, threshold, fn, new HasSomeTask.Found()));
+  }
+
+  private static final class ForEachTask<E> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object[] storage;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final transient ForEachInterface<E> fn;
+
+    ForEachTask(final Object[] storage, final int from, final int to,
+        final int threshold, final ForEachInterface<E> fn) {
+      this.storage   = storage;
+      this.from      = from;
+      this.to        = to;
+      this.threshold = threshold;
+      this.fn        = fn;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void compute() {
+      if (to - from <= threshold) {
+        for (int i = from; i < to; i++) {
+          fn.apply((E) storage[i]);
+        }
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new ForEachTask<>(storage, from, mid, threshold, fn),
+                new ForEachTask<>(storage, mid,  to,  threshold, fn));
+    }
+  }
+
+  private static final class CollectTask<E, T> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object[] storage;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final transient CollectInterface<E, T> fn;
+    private final transient Object[] results;
+    private final int offset;
+
+    CollectTask(final Object[] storage, final int from, final int to,
+        final int threshold, final CollectInterface<E, T> fn,
+        final Object[] results, final int offset) {
+      this.storage   = storage;
+      this.from      = from;
+      this.to        = to;
+      this.threshold = threshold;
+      this.fn        = fn;
+      this.results   = results;
+      this.offset    = offset;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void compute() {
+      if (to - from <= threshold) {
+        for (int i = from; i < to; i++) {
+          results[i - offset] = fn.collect((E) storage[i]);
+        }
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new CollectTask<>(storage, from, mid, threshold, fn, results, offset),
+                new CollectTask<>(storage, mid,  to,  threshold, fn, results, offset));
+    }
+  }
+
+  private static final class HasSomeTask<E> extends RecursiveTask<Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    /** Shared by all tasks of one operation, to stop once one found a match. */
+    private static final class Found {
+      volatile boolean value;
+    }
+
+    private final transient Object[] storage;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final transient TestInterface<E> fn;
+    private final transient Found found;
+
+    HasSomeTask(final Object[] storage, final int from, final int to,
+        final int threshold, final TestInterface<E> fn, final Found found) {
+      this.storage   = storage;
+      this.from      = from;
+      this.to        = to;
+      this.threshold = threshold;
+      this.fn        = fn;
+      this.found     = found;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Boolean compute() {
+      if (to - from <= threshold) {
+        for (int i = from; i < to && !found.value; i++) {
+          if (fn.test((E) storage[i])) {
+            found.value = true;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      int mid = (from + to) >>> 1;
+      HasSomeTask<E> right = new HasSomeTask<>(storage, mid, to, threshold, fn, found);
+      right.fork();
+      boolean left = new HasSomeTask<>(storage, from, mid, threshold, fn, found).compute();
+      return right.join() || left;
+    }
+  }
+}
@@ -22,6 +22,10 @@
  */
 package som;
 
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public class Set<E> {
   private final Vector<E> items;
 
@@ -33,6 +37,11 @@ public class Set<E> {
     items = new Vector<E>(size);
   }
 
+  /** For subclasses that need direct access to the vector of elements. */
+  Set(final Vector<E> items) {
+    this.items = items;
+  }
+
   public int size() {
     return items.size();
   }
@@ -64,6 +73,59 @@ public class Set<E> {
     return coll;
   }
 
+  /**
+   * Parallel variant of {@link #forEach(ForEachInterface)}, see
+   * {@link Vector#parallelForEach(ForEachInterface, int)}.
+   */
+  public void parallelForEach(final ForEachInterface<E> fn, final int threshold) {
+    items.parallelForEach(fn, threshold);
+  }
+
+  public void parallelForEach(final ForEachInterface<E> fn) {
+    items.parallelForEach(fn);
+  }
+
+  /**
+   * Parallel variant of {@link #collect(CollectInterface)}, see
+   * {@link Vector#parallelCollect(CollectInterface, int)}.
+   */
+  public <T> Vector<T> parallelCollect(final CollectInterface<E, T> fn,
+      final int threshold) {
+    return items.parallelCollect(fn, threshold);
+  }
+
+  public <T> Vector<T> parallelCollect(final CollectInterface<E, T> fn) {
+    return items.parallelCollect(fn);
+  }
+
+  /**
+   * Parallel variant of {@link #hasSome(TestInterface)}, see
+   * {@link Vector#parallelHasSome(TestInterface, int)}.
+   */
+  public boolean parallelHasSome(final TestInterface<E> fn, final int threshold) {
+    return items.parallelHasSome(fn, threshold);
+  }
+
+  public boolean parallelHasSome(final TestInterface<E> fn) {
+    return items.parallelHasSome(fn);
+  }
+
+  /**
+   * A spliterator over the elements, see {@link Vector#spliterator()}.
+   * The elements are {@link Spliterator#DISTINCT}.
+   */
+  public Spliterator<E> spliterator() {
+    return items.spliterator(Spliterator.DISTINCT);
+  }
+
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  public Stream<E> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
   public boolean contains(final E obj) {
     return hasSome(e -> { return e.equals(obj); });
   }
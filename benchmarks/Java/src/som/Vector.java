@@ -24,11 +24,18 @@ package som;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Porting notes:
  *  - does not use an explicit array bounds check, because Java already does
  *    that. Don't see a point in doing it twice.
+ *  - the parallel operations, the spliterator and streams, removeInPlace(),
+ *    removeIf(), stableSort(), and sortByIntKey() are not in the SOM class
+ *    library. They are only used by benchmark variants.
  */
 public class Vector<E> {
   private Object[] storage;
@@ -94,6 +101,95 @@ public class Vector<E> {
     }
   }
 
+  /**
+   * Applies {@code fn} to all elements, using the common fork/join pool.
+   * The elements are processed in no particular order, and {@code fn} needs
+   * to be safe to call from multiple threads.
+   */
+  public void parallelForEach(final ForEachInterface<E> fn) {
+    parallelForEach(fn, ParallelTasks.DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Like {@link #parallelForEach(ForEachInterface)}, but ranges of up to
+   * {@code threshold} elements are processed sequentially.
+   */
+  public void parallelForEach(final ForEachInterface<E> fn, final int threshold) {
+    ParallelTasks.checkThreshold(threshold);
+    if (storage != null) {
+      ParallelTasks.forEach(storage, firstIdx, lastIdx, threshold, fn);
+    }
+  }
+
+  /**
+   * Collects the results of {@code fn} for all elements, using the common
+   * fork/join pool. The results are in the order of the elements, but
+   * {@code fn} may be called in any order and from multiple threads.
+   */
+  public <T> Vector<T> parallelCollect(final CollectInterface<E, T> fn) {
+    return parallelCollect(fn, ParallelTasks.DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Like {@link #parallelCollect(CollectInterface)}, but ranges of up to
+   * {@code threshold} elements are processed sequentially.
+   */
+  public <T> Vector<T> parallelCollect(final CollectInterface<E, T> fn,
+      final int threshold) {
+    ParallelTasks.checkThreshold(threshold);
+    Vector<T> result = new Vector<>();
+    if (isEmpty()) {
+      return result;
+    }
+    result.storage = new Object[size()];
+    ParallelTasks.collect(storage, firstIdx, lastIdx, threshold, fn, result.storage);
+    result.lastIdx = result.storage.length;
+    return result;
+  }
+
+  /**
+   * Tests whether {@code fn} is true for any element, using the common
+   * fork/join pool. Once a match is found, the remaining ranges are skipped.
+   */
+  public boolean parallelHasSome(final TestInterface<E> fn) {
+    return parallelHasSome(fn, ParallelTasks.DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Like {@link #parallelHasSome(TestInterface)}, but ranges of up to
+   * {@code threshold} elements are processed sequentially.
+   */
+  public boolean parallelHasSome(final TestInterface<E> fn, final int threshold) {
+    ParallelTasks.checkThreshold(threshold);
+    if (storage == null) {
+      return false;
+    }
+    return ParallelTasks.hasSome(storage, firstIdx, lastIdx, threshold, fn);
+  }
+
+  /**
+   * A spliterator over the current elements, which binds to the storage
+   * when it is created.
+   */
+  public Spliterator<E> spliterator() {
+    return spliterator(0);
+  }
+
+  Spliterator<E> spliterator(final int additionalCharacteristics) {
+    if (storage == null) {
+      return Spliterators.emptySpliterator();
+    }
+    return new VectorSpliterator<>(storage, firstIdx, lastIdx, additionalCharacteristics);
+  }
+
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  public Stream<E> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
   @SuppressWarnings("unchecked")
   public boolean hasSome(final TestInterface<E> fn) {
     for (int i = firstIdx; i < lastIdx; i++) {
@@ -155,6 +251,62 @@ public class Vector<E> {
     return found[0];
   }
 
+  /**
+   * Removes all occurrences of the given object, like {@link #remove(Object)},
+   * but compacts the elements within the existing storage instead of
+   * allocating a new array.
+   */
+  public boolean removeInPlace(final E obj) {
+    int w = 0;
+    boolean found = false;
+    for (int r = firstIdx; r < lastIdx; r++) {
+      Object it = storage[r];
+      if (it == obj) {
+        found = true;
+      } else {
+        storage[w] = it;
+        w++;
+      }
+    }
+    clearTail(w);
+    return found;
+  }
+
+  /**
+   * Removes all elements for which the test is true, compacting the
+   * remaining ones within the existing storage.
+   *
+   * @return true, if any element was removed
+   */
+  @SuppressWarnings("unchecked")
+  public boolean removeIf(final TestInterface<E> fn) {
+    int w = 0;
+    boolean found = false;
+    for (int r = firstIdx; r < lastIdx; r++) {
+      Object it = storage[r];
+      if (fn.test((E) it)) {
+        found = true;
+      } else {
+        storage[w] = it;
+        w++;
+      }
+    }
+    clearTail(w);
+    return found;
+  }
+
+  /**
+   * Completes a compaction to the start of the storage, by clearing the
+   * references beyond the new end.
+   */
+  private void clearTail(final int newLast) {
+    if (storage != null) {
+      Arrays.fill(storage, newLast, lastIdx, null);
+    }
+    firstIdx = 0;
+    lastIdx  = newLast;
+  }
+
   public void removeAll() {
     firstIdx = 0;
     lastIdx = 0;
@@ -181,6 +333,7 @@ public class Vector<E> {
   private void sort(final int i, final int j, final Comparator<E> c) {
     if (c == null) {
       defaultSort(i, j);
+      return;
     }
 
     int n = j + 1 - i;
@@ -239,10 +392,53 @@ public class Vector<E> {
   }
 
   private static void swap(final Object[] storage2, final int i, final int j) {
-    throw new NotImplemented();
+    Object tmp = storage2[i];
+    storage2[i] = storage2[j];
+    storage2[j] = tmp;
   }
 
+  @SuppressWarnings("unchecked")
   private void defaultSort(final int i, final int j) {
-    throw new NotImplemented();
+    sort(i, j, (a, b) -> ((Comparable<E>) a).compareTo(b));
+  }
+
+  /**
+   * Sorts the elements with a stable merge sort, i.e., equal elements keep
+   * their relative order. With a null comparator, the elements need to be
+   * {@link Comparable}.
+   */
+  @SuppressWarnings("unchecked")
+  public void stableSort(final Comparator<E> c) {
+    if (size() > 1) {
+      Arrays.sort((E[]) storage, firstIdx, lastIdx, c);
+    }
+  }
+
+  /**
+   * Stable sort by an int key, which is computed only once per element.
+   * Keys and original positions are packed into longs, which are sorted as
+   * primitives, so that no comparator is called during the sort.
+   */
+  public void sortByIntKey(final IntKeyInterface<E> key) {
+    int n = size();
+    if (n <= 1) {
+      return;
+    }
+
+    long[] packed = new long[n];
+    for (int i = 0; i < n; i++) {
+      @SuppressWarnings("unchecked")
+      E e = (E) storage[firstIdx + i];
+      // the key goes in the upper half, the position in the lower half keeps
+      // the sort stable
+      packed[i] = ((long) key.key(e) << 32) | i;
+    }
+    Arrays.sort(packed);
+
+    Object[] sorted = new Object[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = storage[firstIdx + (int) packed[i]];
+    }
+    System.arraycopy(sorted, 0, storage, firstIdx, n);
   }
 }
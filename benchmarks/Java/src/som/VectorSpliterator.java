@@ -0,0 +1,91 @@
+/* This code is based on the SOM class library.
+ *
+ * Copyright (c) 2001-2016 see AUTHORS.md file
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the 'Software'), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS', WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package som;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over a range of the storage of a {@link Vector}.
+ *
+ * <p>It binds to the storage array when it is created, and does not detect
+ * later modifications of the vector. Since the range is known, it and all
+ * spliterators split from it are {@link #SIZED} and {@link #SUBSIZED}.
+ */
+final class VectorSpliterator<E> implements Spliterator<E> {
+  private final Object[] storage;
+  private int            index;
+  private final int      fence;
+  private final int      characteristics;
+
+  VectorSpliterator(final Object[] storage, final int from, final int to,
+      final int additionalCharacteristics) {
+    this.storage = storage;
+    this.index   = from;
+    this.fence   = to;
+    this.characteristics = additionalCharacteristics | ORDERED | SIZED | SUBSIZED;
+  }
+
+  @Override
+  public Spliterator<E> trySplit() {
+    int lo  = index;
+    int mid = (lo + fence) >>> 1;
+    if (lo >= mid) {
+      return null;
+    }
+    index = mid;
+    return new VectorSpliterator<>(storage, lo, mid, characteristics);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean tryAdvance(final Consumer<? super E> action) {
+    if (index >= fence) {
+      return false;
+    }
+    E e = (E) storage[index];
+    index++;
+    action.accept(e);
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEachRemaining(final Consumer<? super E> action) {
+    int i = index;
+    index = fence;
+    for (; i < fence; i++) {
+      action.accept((E) storage[i]);
+    }
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return characteristics;
+  }
+}